@@ -0,0 +1,102 @@
+package com.ibra.simple_full_stack.benchmark;
+
+import com.ibra.simple_full_stack.cache.PresignedUrlCache;
+import com.ibra.simple_full_stack.dto.PhotoView;
+import com.ibra.simple_full_stack.mapper.PhotoMapper;
+import com.ibra.simple_full_stack.model.Photo;
+import com.ibra.simple_full_stack.service.S3Service;
+import com.ibra.simple_full_stack.service.impl.FileSystemS3ServiceImpl;
+import com.ibra.simple_full_stack.service.impl.FileUrlSigner;
+import com.ibra.simple_full_stack.service.impl.ImageVariantServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.mockito.Mockito;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Shared test data for the benchmarks: a gallery of photos shaped like production rows and a mapper
+ * wired to the filesystem storage backend, so no network or AWS signer is measured.
+ */
+final class BenchmarkFixtures {
+
+    private BenchmarkFixtures() {
+    }
+
+    /**
+     * Filesystem storage under a fresh temporary directory, the same backend on-prem sites run
+     */
+    static FileSystemS3ServiceImpl s3Service() {
+        try {
+            return new FileSystemS3ServiceImpl(new FileUrlSigner("benchmark-secret"),
+                    Files.createTempDirectory("photo-bench-").toString(), "");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * A collaborator the benchmarked method must not reach; any call fails the run instead of skewing it
+     * @param type Collaborator type
+     * @return Mock that throws on every call
+     */
+    static <T> T untouched(Class<T> type) {
+        return Mockito.mock(type, invocation -> {
+            throw new UnsupportedOperationException(type.getSimpleName() + "." + invocation.getMethod().getName()
+                    + " is outside the benchmarked path");
+        });
+    }
+
+    static PresignedUrlCache presignedUrlCache(S3Service s3Service) {
+        return new PresignedUrlCache(s3Service, new SimpleMeterRegistry(), 3, Duration.ofHours(12), 10_000,
+                List.of(200, 800));
+    }
+
+    static PhotoMapper photoMapper(PresignedUrlCache presignedUrlCache, S3Service s3Service) {
+        return new PhotoMapper(presignedUrlCache, new ImageVariantServiceImpl(s3Service, new SimpleMeterRegistry()));
+    }
+
+    /**
+     * Newest-first views with stored URLs that are still valid, so the URL cache never re-signs
+     * @param count Number of photos in the gallery
+     * @return The views in gallery order
+     */
+    static List<PhotoView> photoViews(int count) {
+        LocalDateTime now = LocalDateTime.now();
+        List<PhotoView> views = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            long id = count - i;
+            String fileName = "3f2b8c1e-9d4a-4b6f-8e2a-" + String.format("%012d", id) + "_IMG_" + id + ".jpg";
+            LocalDateTime createdAt = now.minusMinutes(i * 37L);
+            views.add(new PhotoView(id, fileName, "IMG_" + id + ".jpg", "Photo number " + id,
+                    "https://bench-bucket.s3.amazonaws.com/" + fileName + "?X-Amz-Signature=stored",
+                    now.plusDays(2), 250_000L + id * 1_337, "image/jpeg", "200,800", createdAt, createdAt, 0));
+        }
+        return views;
+    }
+
+    static List<Photo> photos(List<PhotoView> views) {
+        List<Photo> photos = new ArrayList<>(views.size());
+        for (PhotoView view : views) {
+            photos.add(Photo.builder()
+                    .id(view.id())
+                    .fileName(view.fileName())
+                    .originalFileName(view.originalFileName())
+                    .description(view.description())
+                    .presignedUrl(view.presignedUrl())
+                    .presignedUrlExpiresAt(view.presignedUrlExpiresAt())
+                    .fileSize(view.fileSize())
+                    .contentType(view.contentType())
+                    .variantWidths(view.variantWidths())
+                    .createdAt(view.createdAt())
+                    .updatedAt(view.updatedAt())
+                    .build());
+        }
+        return photos;
+    }
+}
@@ -0,0 +1,45 @@
+package com.ibra.simple_full_stack.benchmark;
+
+import com.ibra.simple_full_stack.util.FileUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Formatting and sanitizing helpers that run once per photo on the list and upload paths.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class FileUtilsBenchmark {
+
+    @Param({"812", "2621440", "5368709120"})
+    public long fileSize;
+
+    @Param({"IMG_2024-06-01 beach (copy).jpg", "holiday___photo__final!!.png"})
+    public String filename;
+
+    @Benchmark
+    public String formatFileSize() {
+        return FileUtils.formatFileSize(fileSize);
+    }
+
+    /** Same call from several request threads at once, the way the list endpoint runs it. */
+    @Benchmark
+    @Threads(4)
+    public String formatFileSizeConcurrent() {
+        return FileUtils.formatFileSize(fileSize);
+    }
+
+    @Benchmark
+    public String sanitizeFilename() {
+        return FileUtils.sanitizeFilename(filename);
+    }
+}
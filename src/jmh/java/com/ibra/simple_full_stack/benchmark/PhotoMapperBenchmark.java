@@ -0,0 +1,58 @@
+package com.ibra.simple_full_stack.benchmark;
+
+import com.ibra.simple_full_stack.dto.PhotoDto;
+import com.ibra.simple_full_stack.dto.PhotoView;
+import com.ibra.simple_full_stack.mapper.PhotoMapper;
+import com.ibra.simple_full_stack.model.Photo;
+import com.ibra.simple_full_stack.service.S3Service;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-photo mapping cost, from the read-only projection and from a loaded entity.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class PhotoMapperBenchmark {
+
+    private static final int PHOTO_COUNT = 1024;
+
+    private PhotoMapper photoMapper;
+    private List<PhotoView> views;
+    private List<Photo> photos;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        S3Service s3Service = BenchmarkFixtures.s3Service();
+        photoMapper = BenchmarkFixtures.photoMapper(BenchmarkFixtures.presignedUrlCache(s3Service), s3Service);
+        views = BenchmarkFixtures.photoViews(PHOTO_COUNT);
+        photos = BenchmarkFixtures.photos(views);
+        // Warm the URL cache so every invocation measures the hit path the list endpoint sees
+        views.forEach(photoMapper::convertToDto);
+    }
+
+    @Benchmark
+    public PhotoDto convertView() {
+        return photoMapper.convertToDto(views.get(nextIndex()));
+    }
+
+    @Benchmark
+    public PhotoDto convertEntity() {
+        return photoMapper.convertToDto(photos.get(nextIndex()));
+    }
+
+    private int nextIndex() {
+        next = (next + 1) & (PHOTO_COUNT - 1);
+        return next;
+    }
+}
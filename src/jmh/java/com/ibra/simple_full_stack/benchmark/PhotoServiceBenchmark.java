@@ -0,0 +1,75 @@
+package com.ibra.simple_full_stack.benchmark;
+
+import com.ibra.simple_full_stack.cache.PhotoViewCache;
+import com.ibra.simple_full_stack.cache.PresignedUrlCache;
+import com.ibra.simple_full_stack.dto.PhotoDto;
+import com.ibra.simple_full_stack.dto.PhotoView;
+import com.ibra.simple_full_stack.repository.PhotoRepository;
+import com.ibra.simple_full_stack.service.FacetService;
+import com.ibra.simple_full_stack.service.ImageVariantService;
+import com.ibra.simple_full_stack.service.PhotoBlobService;
+import com.ibra.simple_full_stack.service.S3Service;
+import com.ibra.simple_full_stack.service.TagService;
+import com.ibra.simple_full_stack.service.impl.PhotoServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import static com.ibra.simple_full_stack.benchmark.BenchmarkFixtures.untouched;
+
+/**
+ * Full list endpoint work above the database: mapping every row, URL cache lookups and
+ * formatting. The repository hands back a fixed list of views, so this isolates the CPU and
+ * allocation cost that grows with gallery size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class PhotoServiceBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int photoCount;
+
+    private PhotoServiceImpl photoService;
+
+    @Setup
+    public void setUp() {
+        List<PhotoView> views = BenchmarkFixtures.photoViews(photoCount);
+        PhotoRepository photoRepository = (PhotoRepository) Proxy.newProxyInstance(
+                PhotoRepository.class.getClassLoader(), new Class<?>[]{PhotoRepository.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "findAllViews" -> views;
+                    case "toString" -> "in-memory PhotoRepository";
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+
+        S3Service s3Service = BenchmarkFixtures.s3Service();
+        PresignedUrlCache presignedUrlCache = BenchmarkFixtures.presignedUrlCache(s3Service);
+
+        photoService = new PhotoServiceImpl(photoRepository, s3Service,
+                BenchmarkFixtures.photoMapper(presignedUrlCache, s3Service), presignedUrlCache,
+                untouched(PhotoViewCache.class), untouched(ImageVariantService.class),
+                untouched(PhotoBlobService.class), untouched(TagService.class), untouched(FacetService.class),
+                untouched(TransactionTemplate.class), untouched(ApplicationEventPublisher.class),
+                new SimpleMeterRegistry(), untouched(Executor.class));
+        photoService.getAllPhotos();
+    }
+
+    @Benchmark
+    public List<PhotoDto> getAllPhotos() {
+        return photoService.getAllPhotos();
+    }
+}
@@ -0,0 +1,46 @@
+package com.ibra.simple_full_stack.benchmark;
+
+import com.ibra.simple_full_stack.cache.S3KeyIndex;
+import com.ibra.simple_full_stack.service.impl.S3MultipartUploader;
+import com.ibra.simple_full_stack.service.impl.S3ServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.ibra.simple_full_stack.benchmark.BenchmarkFixtures.untouched;
+
+/**
+ * Object key generation for new uploads. The method touches no AWS client, so every client is a mock that
+ * fails the run if it is called.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class S3ServiceImplBenchmark {
+
+    @Param({"IMG_2024-06-01 beach (copy).jpg", "photo.png"})
+    public String originalFilename;
+
+    private S3ServiceImpl s3Service;
+
+    @Setup
+    public void setUp() {
+        s3Service = new S3ServiceImpl(untouched(S3Client.class), untouched(S3Presigner.class),
+                untouched(S3MultipartUploader.class), untouched(S3KeyIndex.class), new SimpleMeterRegistry());
+    }
+
+    @Benchmark
+    public String generateUniqueFileName() {
+        return s3Service.generateUniqueFileName(originalFilename);
+    }
+}
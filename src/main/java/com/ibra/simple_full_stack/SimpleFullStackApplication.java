@@ -2,8 +2,10 @@ package com.ibra.simple_full_stack;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class SimpleFullStackApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,105 @@
+package com.ibra.simple_full_stack.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ibra.simple_full_stack.dto.PhotoChangeEvent;
+import com.ibra.simple_full_stack.dto.PhotoDto;
+import com.ibra.simple_full_stack.mapper.PhotoMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Holds the serialized JSON of the full gallery list so unchanged lists skip mapping and Jackson entirely.
+ * The entry is keyed by the list ETag, which changes with every photo change. It also expires the moment
+ * any photo's timeAgo would read differently, so the cached bytes always match what a fresh render gives.
+ */
+@Slf4j
+@Component
+public class GalleryResponseCache {
+
+    private final ObjectMapper objectMapper;
+    private final PhotoMapper photoMapper;
+    private final boolean enabled;
+    private final AtomicReference<CachedGallery> current = new AtomicReference<>();
+    private final Counter hits;
+    private final Counter misses;
+
+    public GalleryResponseCache(ObjectMapper objectMapper, PhotoMapper photoMapper, MeterRegistry meterRegistry,
+                                @Value("${photo.cache.gallery.enabled:true}") boolean enabled) {
+        this.objectMapper = objectMapper;
+        this.photoMapper = photoMapper;
+        this.enabled = enabled;
+        this.hits = meterRegistry.counter("cache.gallery.requests", "result", "hit");
+        this.misses = meterRegistry.counter("cache.gallery.requests", "result", "miss");
+    }
+
+    /**
+     * Get the serialized gallery for an ETag, rendering and caching it when absent or stale
+     * @param eTag Current list ETag
+     * @param loader Loads the gallery on a miss
+     * @return UTF-8 JSON bytes of the photo list
+     */
+    public byte[] get(String eTag, Supplier<List<PhotoDto>> loader) {
+        LocalDateTime now = LocalDateTime.now();
+        CachedGallery cached = current.get();
+        if (enabled && cached != null && cached.eTag().equals(eTag) && now.isBefore(cached.validUntil())) {
+            hits.increment();
+            return cached.json();
+        }
+
+        misses.increment();
+        List<PhotoDto> photos = loader.get();
+        byte[] json = serialize(photos);
+        if (enabled) {
+            current.set(new CachedGallery(eTag, json, validUntil(photos, now)));
+        }
+        return json;
+    }
+
+    /**
+     * Serialize a photo list the same way Spring MVC would
+     * @param photos Photos to serialize
+     * @return UTF-8 JSON bytes
+     */
+    private byte[] serialize(List<PhotoDto> photos) {
+        try {
+            return objectMapper.writeValueAsBytes(photos);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * The ETag already changes on commit; dropping the entry here just releases its memory early
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPhotoChange(PhotoChangeEvent event) {
+        current.set(null);
+    }
+
+    private LocalDateTime validUntil(List<PhotoDto> photos, LocalDateTime now) {
+        LocalDateTime validUntil = LocalDateTime.MAX;
+        for (PhotoDto photo : photos) {
+            if (photo.getCreatedAt() != null) {
+                LocalDateTime change = photoMapper.nextTimeAgoChange(photo.getCreatedAt(), now);
+                if (change.isBefore(validUntil)) {
+                    validUntil = change;
+                }
+            }
+        }
+        return validUntil;
+    }
+
+    private record CachedGallery(String eTag, byte[] json, LocalDateTime validUntil) {
+    }
+}
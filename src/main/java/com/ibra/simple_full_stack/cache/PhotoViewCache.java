@@ -0,0 +1,116 @@
+package com.ibra.simple_full_stack.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.ibra.simple_full_stack.dto.PhotoView;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+
+/**
+ * Bounded read-through cache of photo rows by id for the detail endpoint.
+ * Holds the PhotoView projection rather than the DTO, so timeAgo and signed URLs are still computed per read.
+ * Loads run outside Caffeine's compute lock: a load is a database call, and blocking inside compute would
+ * pin a virtual thread to its carrier. Concurrent misses for one id may both load, which is harmless.
+ * <p>
+ * Because a load is not atomic with its store, every invalidation bumps a generation counter for the id's
+ * stripe, and a load only stores its row if that generation is unchanged since the load began. The check
+ * and the store run together inside compute, so an invalidation either lands before the store and
+ * cancels it, or after it and removes the row.
+ */
+@Slf4j
+@Component
+public class PhotoViewCache {
+
+    private final boolean enabled;
+    private final Cache<Long, PhotoView> cache;
+    private final Timer loadTimer;
+    // Fixed number of stripes keeps the counters bounded; ids sharing a stripe only skip a few extra stores
+    private final AtomicLongArray generations = new AtomicLongArray(1024);
+
+    public PhotoViewCache(MeterRegistry meterRegistry,
+                          @Value("${photo.cache.by-id.enabled:true}") boolean enabled,
+                          @Value("${photo.cache.by-id.max-size:10000}") long maxSize,
+                          @Value("${photo.cache.by-id.ttl:PT10M}") Duration ttl) {
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.loadTimer = Timer.builder("cache.photo-by-id.load")
+                .description("Time to load a photo row on a cache miss")
+                .register(meterRegistry);
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "photoById");
+        log.info("Photo by-id cache {} (max size: {}, ttl: {})", enabled ? "enabled" : "disabled", maxSize, ttl);
+    }
+
+    /**
+     * Get a photo row, loading and caching it on a miss; missing photos are not cached
+     * @param id Photo ID
+     * @param loader Loads the row from the database
+     * @return The row, or empty if the photo does not exist
+     */
+    public Optional<PhotoView> get(Long id, Function<Long, Optional<PhotoView>> loader) {
+        if (!enabled) {
+            return loader.apply(id);
+        }
+
+        PhotoView cached = cache.getIfPresent(id);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+
+        long generation = generations.get(stripe(id));
+        long startTime = System.nanoTime();
+        Optional<PhotoView> loaded = loader.apply(id);
+        loadTimer.record(Duration.ofNanos(System.nanoTime() - startTime));
+        // An invalidation during the load means the row may predate a commit; serve it but do not keep it
+        loaded.ifPresent(view -> cache.asMap().compute(id, (key, current) ->
+                generations.get(stripe(id)) == generation ? view : current));
+        return loaded;
+    }
+
+    /**
+     * Drop cached rows now and again once the surrounding transaction completes; loads still in flight at
+     * either point do not store the row they read
+     * @param ids Photo IDs that changed
+     */
+    public void invalidate(Collection<Long> ids) {
+        if (!enabled || ids.isEmpty()) {
+            return;
+        }
+
+        evict(ids);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evict(ids);
+                }
+            });
+        }
+    }
+
+    private void evict(Collection<Long> ids) {
+        // Bump before removing: a load that stores after the removal must already see the new generation
+        ids.forEach(id -> generations.incrementAndGet(stripe(id)));
+        cache.invalidateAll(ids);
+    }
+
+    private int stripe(Long id) {
+        return (int) (Long.hashCode(id) & (generations.length() - 1));
+    }
+}
@@ -0,0 +1,155 @@
+package com.ibra.simple_full_stack.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.ibra.simple_full_stack.service.S3Service;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Bounded cache of presigned GET URLs keyed by S3 file name.
+ * Each entry is evicted a safety margin before its own signature expires, so a cached URL
+ * handed to a client is always valid for at least that margin.
+ */
+@Slf4j
+@Component
+public class PresignedUrlCache {
+
+    private final S3Service s3Service;
+    private final int urlDurationDays;
+    private final Duration refreshMargin;
+    private final Cache<String, SignedUrl> cache;
+
+    public PresignedUrlCache(S3Service s3Service,
+                             MeterRegistry meterRegistry,
+                             @Value("${photo.presigned-url.duration-days:3}") int urlDurationDays,
+                             @Value("${photo.presigned-url.cache.refresh-margin:12h}") Duration refreshMargin,
+                             @Value("${photo.presigned-url.cache.max-photos:10000}") long maxPhotos,
+                             @Value("${photo.variants.widths:200,800}") List<Integer> variantWidths) {
+        if (Duration.ofDays(urlDurationDays).compareTo(refreshMargin) <= 0) {
+            throw new IllegalStateException("Presigned URL refresh margin must be shorter than the URL duration");
+        }
+
+        this.s3Service = s3Service;
+        this.urlDurationDays = urlDurationDays;
+        this.refreshMargin = refreshMargin;
+        // Each photo holds one entry for its original and one per variant; sizing by entries alone made the
+        // list view thrash once the gallery outgrew a third of the limit
+        long maxSize = maxPhotos * (1 + variantWidths.size());
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new MarginExpiry())
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "presignedUrls");
+        log.info("Presigned URL cache initialized (max size: {} for {} photos, refresh margin: {})",
+                maxSize, maxPhotos, refreshMargin);
+    }
+
+    /**
+     * Get a valid presigned URL for a file, signing a new one on a cache miss
+     * @param fileName The filename in S3
+     * @return Presigned URL string, or null if signing failed
+     */
+    public String getUrl(String fileName) {
+        return getUrl(fileName, null, null);
+    }
+
+    /**
+     * Get a valid presigned URL for a file. On a cache miss a stored URL is reused if it is
+     * still valid beyond the refresh margin; otherwise a new one is signed.
+     * @param fileName The filename in S3
+     * @param storedUrl Previously persisted URL, may be null
+     * @param storedExpiresAt Expiry of the persisted URL, may be null
+     * @return Presigned URL string, or null if signing failed
+     */
+    public String getUrl(String fileName, String storedUrl, LocalDateTime storedExpiresAt) {
+        if (fileName == null) {
+            return null;
+        }
+
+        // A null result from signing is not cached, so the next read retries
+        SignedUrl signedUrl = cache.get(fileName, key -> {
+            if (storedUrl != null && storedExpiresAt != null
+                    && storedExpiresAt.isAfter(LocalDateTime.now().plus(refreshMargin))) {
+                return new SignedUrl(storedUrl, storedExpiresAt);
+            }
+            return sign(key);
+        });
+
+        return signedUrl != null ? signedUrl.url() : null;
+    }
+
+    /**
+     * Sign a fresh URL for a file, bypassing and then replacing any cached entry
+     * @param fileName The filename in S3
+     * @return The new signed URL with its expiry, or null if signing failed
+     */
+    public SignedUrl refresh(String fileName) {
+        SignedUrl signedUrl = sign(fileName);
+        if (signedUrl != null) {
+            cache.put(fileName, signedUrl);
+        }
+        return signedUrl;
+    }
+
+    /**
+     * Drop the cached URL for a file so the next read signs a fresh one
+     * @param fileName The filename in S3
+     */
+    public void evict(String fileName) {
+        if (fileName != null) {
+            cache.invalidate(fileName);
+        }
+    }
+
+    /**
+     * Hit, miss and eviction counters of the cache
+     * @return Snapshot of the cache statistics
+     */
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    private SignedUrl sign(String fileName) {
+        // Take the expiry before signing so it never overstates the signature's validity
+        LocalDateTime expiresAt = LocalDateTime.now().plusDays(urlDurationDays);
+        String url = s3Service.generatePresignedUrl(fileName, urlDurationDays);
+        return url != null ? new SignedUrl(url, expiresAt) : null;
+    }
+
+    /**
+     * A presigned URL together with the moment its signature expires.
+     */
+    public record SignedUrl(String url, LocalDateTime expiresAt) {
+    }
+
+    private final class MarginExpiry implements Expiry<String, SignedUrl> {
+
+        @Override
+        public long expireAfterCreate(String key, SignedUrl value, long currentTime) {
+            Duration remaining = Duration.between(LocalDateTime.now(), value.expiresAt()).minus(refreshMargin);
+            return Math.max(0, remaining.toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, SignedUrl value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, SignedUrl value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.ibra.simple_full_stack.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Request;
+import software.amazon.awssdk.services.s3.model.S3Object;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory index of the object keys in the photo bucket, so existence checks can skip a HEAD request.
+ * <p>
+ * The bulk of the index is a sorted array of 64-bit key hashes loaded from a paginated bucket listing
+ * (8 bytes per object); uploads and deletes made by this task are layered on top as small delta sets.
+ * Only positive answers are authoritative: objects written by other tasks are unknown until the next
+ * reconcile, so callers should fall back to S3 when a key is not found.
+ */
+@Slf4j
+@Component
+@Profile("!filesystem")
+public class S3KeyIndex {
+
+    private final S3Client s3Client;
+
+    @Value("${s3.bucket.name}")
+    private String bucketName;
+
+    @Value("${s3.key-index.enabled:true}")
+    private boolean enabled;
+
+    private volatile long[] snapshot = new long[0];
+    private volatile Deltas previousDeltas = new Deltas();
+    private volatile Deltas currentDeltas = new Deltas();
+    private volatile boolean ready;
+
+    public S3KeyIndex(S3Client s3Client) {
+        this.s3Client = s3Client;
+    }
+
+    /**
+     * Rebuild the index from a full bucket listing; runs at startup and then periodically
+     */
+    @Scheduled(initialDelay = 0, fixedDelayString = "${s3.key-index.reconcile-interval:PT1H}")
+    public void reconcile() {
+        if (!enabled) {
+            return;
+        }
+
+        long startTime = System.currentTimeMillis();
+        // Changes made while the listing runs go to a fresh delta set that survives the swap
+        previousDeltas = currentDeltas;
+        currentDeltas = new Deltas();
+
+        try {
+            long[] hashes = s3Client.listObjectsV2Paginator(ListObjectsV2Request.builder()
+                            .bucket(bucketName)
+                            .build())
+                    .contents()
+                    .stream()
+                    .map(S3Object::key)
+                    .mapToLong(S3KeyIndex::hash)
+                    .sorted()
+                    .toArray();
+
+            snapshot = hashes;
+            previousDeltas = new Deltas();
+            ready = true;
+
+            log.info("Indexed {} objects in S3 bucket {} in {} ms", hashes.length, bucketName,
+                    System.currentTimeMillis() - startTime);
+
+        } catch (Exception e) {
+            log.error("Failed to index objects in S3 bucket {}: {}", bucketName, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Whether the index has completed at least one full listing
+     * @return true if lookups can be trusted for positive answers
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Check whether a key is known to exist
+     * @param key The object key
+     * @return true if the key is known to exist; false means unknown, not absent
+     */
+    public boolean contains(String key) {
+        if (!ready || key == null) {
+            return false;
+        }
+
+        long hash = hash(key);
+        for (Deltas deltas : new Deltas[]{currentDeltas, previousDeltas}) {
+            if (deltas.added.contains(hash)) {
+                return true;
+            }
+            if (deltas.removed.contains(hash)) {
+                return false;
+            }
+        }
+        return Arrays.binarySearch(snapshot, hash) >= 0;
+    }
+
+    /**
+     * Record that an object was written
+     * @param key The object key
+     */
+    public void markPresent(String key) {
+        long hash = hash(key);
+        Deltas deltas = currentDeltas;
+        deltas.removed.remove(hash);
+        deltas.added.add(hash);
+    }
+
+    /**
+     * Record that an object was deleted
+     * @param key The object key
+     */
+    public void markAbsent(String key) {
+        long hash = hash(key);
+        Deltas deltas = currentDeltas;
+        deltas.added.remove(hash);
+        deltas.removed.add(hash);
+    }
+
+    private static long hash(String key) {
+        return UUID.nameUUIDFromBytes(key.getBytes(StandardCharsets.UTF_8)).getMostSignificantBits();
+    }
+
+    private static final class Deltas {
+        private final Set<Long> added = ConcurrentHashMap.newKeySet();
+        private final Set<Long> removed = ConcurrentHashMap.newKeySet();
+    }
+}
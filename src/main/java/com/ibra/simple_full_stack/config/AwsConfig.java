@@ -6,13 +6,19 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
 import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
+import software.amazon.awssdk.http.apache.ApacheHttpClient;
 import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.S3ClientBuilder;
+import software.amazon.awssdk.services.s3.S3Configuration;
 import software.amazon.awssdk.services.s3.presigner.S3Presigner;
 
+import java.net.URI;
+import java.time.Duration;
+
 @Slf4j
 @Configuration
+@Profile("!filesystem")
 public class AwsConfig {
 
     @Value("${aws.region}")
@@ -21,14 +27,33 @@ public class AwsConfig {
     @Value("${s3.bucket.name}")
     private String bucketName;
 
+    @Value("${s3.http.max-connections:50}")
+    private int maxConnections;
+
+    @Value("${s3.http.connection-acquisition-timeout:PT10S}")
+    private Duration connectionAcquisitionTimeout;
+
+    // S3-compatible endpoint such as MinIO or a test stand-in; addressed path-style. Blank means AWS
+    @Value("${s3.endpoint:}")
+    private String endpoint;
+
 
     @Bean
     public S3Client s3Client() {
         log.info("Initializing S3 Client for region: {} and bucket: {}", awsRegion, bucketName);
 
+        // An explicit, bounded connection pool: with virtual threads there is no worker pool left to cap
+        // concurrent S3 calls, so callers queue on the pool's lock instead of opening unbounded connections
         S3ClientBuilder builder = S3Client.builder()
                 .region(Region.of(awsRegion))
-                .credentialsProvider(DefaultCredentialsProvider.create());
+                .credentialsProvider(DefaultCredentialsProvider.create())
+                .httpClientBuilder(ApacheHttpClient.builder()
+                        .maxConnections(maxConnections)
+                        .connectionAcquisitionTimeout(connectionAcquisitionTimeout));
+        if (!endpoint.isBlank()) {
+            log.info("Using S3 endpoint {}", endpoint);
+            builder.endpointOverride(URI.create(endpoint)).forcePathStyle(true);
+        }
 
         return builder.build();
     }
@@ -37,10 +62,15 @@ public class AwsConfig {
     public S3Presigner s3Presigner() {
         log.info("Initializing S3 Presigner for region: {}", awsRegion);
 
-        return S3Presigner.builder()
+        S3Presigner.Builder builder = S3Presigner.builder()
                 .region(Region.of(awsRegion))
-                .credentialsProvider(DefaultCredentialsProvider.create())
-                .build();
+                .credentialsProvider(DefaultCredentialsProvider.create());
+        if (!endpoint.isBlank()) {
+            builder.endpointOverride(URI.create(endpoint))
+                    .serviceConfiguration(S3Configuration.builder().pathStyleAccessEnabled(true).build());
+        }
+
+        return builder.build();
     }
 
 //    @Bean
@@ -0,0 +1,174 @@
+package com.ibra.simple_full_stack.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Internal executors. When {@code spring.threads.virtual.enabled} is set they follow the web layer onto
+ * virtual threads; concurrency limits are kept either way so S3 and the database are not flooded.
+ */
+@Slf4j
+@Configuration
+public class ExecutorConfig {
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    @Value("${s3.multipart.executor-threads:16}")
+    private int s3PartUploadThreads;
+
+    @Value("${photo.presigned-url.refresh.threads:4}")
+    private int presignedUrlRefreshThreads;
+
+    @Value("${photo.upload.batch.parallelism:8}")
+    private int batchUploadParallelism;
+
+    @Value("${photo.upload.async.workers:4}")
+    private int uploadJobWorkers;
+
+    @Value("${photo.upload.async.queue-capacity:100}")
+    private int uploadJobQueueCapacity;
+
+    @Value("${photo.events.queue-capacity:10000}")
+    private int photoEventQueueCapacity;
+
+    @Value("${photo.events.send-threads:8}")
+    private int photoEventSendThreads;
+
+    @Bean(name = "s3PartUploadExecutor")
+    public AsyncTaskExecutor s3PartUploadExecutor() {
+        if (virtualThreads) {
+            // Part concurrency is already bounded by S3MultipartUploader's semaphores
+            log.info("Initializing S3 part upload executor on virtual threads");
+            return virtualThreadExecutor("s3-part-", SimpleAsyncTaskExecutor.UNBOUNDED_CONCURRENCY, 30);
+        }
+
+        log.info("Initializing S3 part upload executor with {} threads", s3PartUploadThreads);
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(s3PartUploadThreads);
+        executor.setMaxPoolSize(s3PartUploadThreads);
+        executor.setThreadNamePrefix("s3-part-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+
+    @Bean(name = "presignedUrlRefreshExecutor")
+    public AsyncTaskExecutor presignedUrlRefreshExecutor() {
+        if (virtualThreads) {
+            log.info("Initializing presigned URL refresh executor on virtual threads (limit {})", presignedUrlRefreshThreads);
+            return virtualThreadExecutor("url-refresh-", presignedUrlRefreshThreads, 0);
+        }
+
+        log.info("Initializing presigned URL refresh executor with {} threads", presignedUrlRefreshThreads);
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(presignedUrlRefreshThreads);
+        executor.setMaxPoolSize(presignedUrlRefreshThreads);
+        executor.setThreadNamePrefix("url-refresh-");
+        return executor;
+    }
+
+    /**
+     * Shared across all batch requests, so it also caps the total number of concurrent batch S3 uploads.
+     */
+    @Bean(name = "batchUploadExecutor")
+    public AsyncTaskExecutor batchUploadExecutor() {
+        if (virtualThreads) {
+            log.info("Initializing batch upload executor on virtual threads (limit {})", batchUploadParallelism);
+            return virtualThreadExecutor("batch-upload-", batchUploadParallelism, 60);
+        }
+
+        log.info("Initializing batch upload executor with {} threads", batchUploadParallelism);
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(batchUploadParallelism);
+        executor.setMaxPoolSize(batchUploadParallelism);
+        executor.setThreadNamePrefix("batch-upload-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(60);
+        return executor;
+    }
+
+    /**
+     * Bounded pool for background uploads; once the queue is full, submissions are rejected
+     * so the API can answer 503 instead of letting spooled files pile up.
+     * In virtual-thread mode the workers are virtual but the pool and its queue stay, since they
+     * are what provides the backpressure.
+     */
+    @Bean(name = "uploadJobExecutor")
+    public ThreadPoolTaskExecutor uploadJobExecutor() {
+        log.info("Initializing upload job executor with {} {} workers and queue capacity {}",
+                uploadJobWorkers, virtualThreads ? "virtual" : "platform", uploadJobQueueCapacity);
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(uploadJobWorkers);
+        executor.setMaxPoolSize(uploadJobWorkers);
+        executor.setQueueCapacity(uploadJobQueueCapacity);
+        executor.setThreadNamePrefix("upload-job-");
+        if (virtualThreads) {
+            executor.setThreadFactory(Thread.ofVirtual().name("upload-job-", 0).factory());
+        }
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(60);
+        return executor;
+    }
+
+    /**
+     * Single worker so gallery events reach every subscriber in commit order; also keeps
+     * SSE writes off the request threads that commit the changes.
+     */
+    @Bean(name = "photoEventExecutor")
+    public ThreadPoolTaskExecutor photoEventExecutor() {
+        log.info("Initializing photo event executor with queue capacity {}", photoEventQueueCapacity);
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(photoEventQueueCapacity);
+        executor.setThreadNamePrefix("photo-events-");
+        if (virtualThreads) {
+            executor.setThreadFactory(Thread.ofVirtual().name("photo-events-", 0).factory());
+        }
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(5);
+        return executor;
+    }
+
+    /**
+     * Writes to individual SSE subscribers, one drain task per connection with pending events, so a
+     * client whose socket has stalled only ties up its own writer.
+     */
+    @Bean(name = "photoEventSendExecutor")
+    public AsyncTaskExecutor photoEventSendExecutor() {
+        if (virtualThreads) {
+            log.info("Initializing photo event send executor on virtual threads");
+            return virtualThreadExecutor("photo-event-send-", SimpleAsyncTaskExecutor.UNBOUNDED_CONCURRENCY, 5);
+        }
+
+        log.info("Initializing photo event send executor with {} threads", photoEventSendThreads);
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(photoEventSendThreads);
+        executor.setMaxPoolSize(photoEventSendThreads);
+        executor.setThreadNamePrefix("photo-event-send-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(5);
+        return executor;
+    }
+
+    private SimpleAsyncTaskExecutor virtualThreadExecutor(String threadNamePrefix, int concurrencyLimit,
+                                                          int terminationTimeoutSeconds) {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(threadNamePrefix);
+        executor.setVirtualThreads(true);
+        executor.setConcurrencyLimit(concurrencyLimit);
+        executor.setTaskTerminationTimeout(terminationTimeoutSeconds * 1000L);
+        return executor;
+    }
+}
@@ -1,14 +1,41 @@
 package com.ibra.simple_full_stack.config;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.servlet.HandlerInterceptor;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistration;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.ViewControllerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.ContentVersionStrategy;
+import org.springframework.web.servlet.resource.EncodedResourceResolver;
+import org.springframework.web.servlet.resource.ResourceUrlEncodingFilter;
+import org.springframework.web.servlet.resource.ResourceUrlProvider;
+import org.springframework.web.servlet.resource.VersionResourceResolver;
+import org.springframework.web.util.UrlPathHelper;
+
+import java.util.concurrent.TimeUnit;
 
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
 
+    private static final String[] ASSET_PATTERNS = {"/static/**", "/css/**", "/js/**"};
+
+    private final ContentVersionStrategy versionStrategy = new ContentVersionStrategy();
+    // Resolved per request: the provider is built by the MVC configuration this class takes part in
+    private final ObjectProvider<ResourceUrlProvider> resourceUrlProvider;
+
+    public WebConfig(ObjectProvider<ResourceUrlProvider> resourceUrlProvider) {
+        this.resourceUrlProvider = resourceUrlProvider;
+    }
+
     @Override
     public void addCorsMappings(CorsRegistry registry) {
         registry.addMapping("/api/**")
@@ -20,20 +47,68 @@ public class WebConfig implements WebMvcConfigurer {
 
     @Override
     public void addResourceHandlers(ResourceHandlerRegistry registry) {
-        registry.addResourceHandler("/static/**")
-                .addResourceLocations("classpath:/static/");
-                
-        registry.addResourceHandler("/css/**")
-                .addResourceLocations("classpath:/static/css/");
-                
-        registry.addResourceHandler("/static/js/**")
-                .addResourceLocations("classpath:/static/js/");
+        fingerprinted(registry.addResourceHandler("/static/**")
+                .addResourceLocations("classpath:/static/"));
+
+        fingerprinted(registry.addResourceHandler("/css/**")
+                .addResourceLocations("classpath:/static/css/"));
+
+        fingerprinted(registry.addResourceHandler("/js/**", "/static/js/**")
+                .addResourceLocations("classpath:/static/js/"));
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new HandlerInterceptor() {
+            @Override
+            public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+                response.setHeader(HttpHeaders.CACHE_CONTROL, assetCacheControl(request).getHeaderValue());
+                return true;
+            }
+        }).addPathPatterns(ASSET_PATTERNS);
+    }
+
+    /**
+     * Rewrites asset links in rendered templates (th:href/th:src) to their fingerprinted URLs
+     */
+    @Bean
+    public ResourceUrlEncodingFilter resourceUrlEncodingFilter() {
+        return new ResourceUrlEncodingFilter();
     }
 
     @Override
     public void addViewControllers(ViewControllerRegistry registry) {
-        // Serve the SPA for all non-API routes
-        registry.addViewController("/").setViewName("forward:/index.html");
-        registry.addViewController("/{path:[^\\.]*}").setViewName("forward:/index.html");
+        // Serve the SPA for all non-API routes; the template links assets through their fingerprinted URLs
+        registry.addViewController("/").setViewName("index");
+        registry.addViewController("/index.html").setViewName("index");
+        registry.addViewController("/{path:[^\\.]*}").setViewName("index");
+    }
+
+    /**
+     * Serve assets under content-hashed URLs (app-&lt;md5&gt;.js) as well as their plain paths, preferring the
+     * .gz files produced at build time when the client accepts them. Cache-Control is left to the interceptor
+     */
+    private void fingerprinted(ResourceHandlerRegistration registration) {
+        registration
+                .resourceChain(true)
+                .addResolver(new EncodedResourceResolver())
+                .addResolver(new VersionResourceResolver().addContentVersionStrategy("/**"));
+    }
+
+    /**
+     * Only a URL carrying the current content hash can be cached for a year; plain paths such as /js/app.js,
+     * still requested by old bookmarks and external links, and stale hashes revalidate on every use
+     */
+    private CacheControl assetCacheControl(HttpServletRequest request) {
+        String path = UrlPathHelper.defaultInstance.getLookupPathForRequest(request);
+        String version = versionStrategy.extractVersion(path);
+        if (version != null) {
+            ResourceUrlProvider provider = resourceUrlProvider.getIfAvailable();
+            String current = provider != null ? provider.getForLookupPath(versionStrategy.removeVersion(path, version)) : null;
+            if (path.equals(current)) {
+                return CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable();
+            }
+        }
+        return CacheControl.noCache();
     }
 }
@@ -0,0 +1,109 @@
+package com.ibra.simple_full_stack.controller;
+
+import com.ibra.simple_full_stack.service.impl.FileSystemS3ServiceImpl;
+import com.ibra.simple_full_stack.service.impl.FileUrlSigner;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Serves files from filesystem storage through the signed URLs it hands out in place of S3 presigned URLs.
+ */
+@Slf4j
+@RestController
+@Profile("filesystem")
+@RequestMapping("/files")
+@Tag(name = "Files", description = "Signed downloads from local filesystem storage")
+public class FileDownloadController {
+
+    // Tomcat's sendfile contract: with these request attributes set, the connector writes the file itself
+    private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private final FileSystemS3ServiceImpl storage;
+    private final FileUrlSigner urlSigner;
+
+    public FileDownloadController(FileSystemS3ServiceImpl storage, FileUrlSigner urlSigner) {
+        this.storage = storage;
+        this.urlSigner = urlSigner;
+    }
+
+    @Operation(summary = "Download a file", description = "Stream a stored file through a signed, expiring URL")
+    @GetMapping("/{fileName}")
+    public void download(
+            @Parameter(description = "Stored file name", required = true)
+            @PathVariable String fileName,
+
+            @Parameter(description = "Expiry in epoch seconds", required = true)
+            @RequestParam("expires") long expires,
+
+            @Parameter(description = "URL signature", required = true)
+            @RequestParam("signature") String signature,
+
+            HttpServletRequest request, HttpServletResponse response) throws IOException {
+
+        // Expired and forged URLs both get 403, as S3 answers them
+        if (!urlSigner.verify(fileName, expires, signature)) {
+            response.sendError(HttpServletResponse.SC_FORBIDDEN);
+            return;
+        }
+
+        FileSystemS3ServiceImpl.StoredObject object;
+        try {
+            object = storage.findObject(fileName);
+        } catch (IllegalArgumentException e) {
+            object = null;
+        }
+        if (object == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        response.setContentType(object.contentType());
+        response.setContentLengthLong(object.size());
+        // Objects never change under a name, so clients may keep them for as long as the URL is valid
+        long maxAge = Math.max(0, expires - System.currentTimeMillis() / 1000);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, max-age=" + maxAge);
+        if (!"GET".equals(request.getMethod())) {
+            return;
+        }
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))) {
+            // Zero-copy: the connector hands the file to the socket with sendfile
+            request.setAttribute(SENDFILE_FILENAME, object.path().toString());
+            request.setAttribute(SENDFILE_START, 0L);
+            request.setAttribute(SENDFILE_END, object.size());
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(object.path(), StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = 0;
+            while (position < object.size()) {
+                long transferred = channel.transferTo(position, object.size() - position, out);
+                if (transferred <= 0) {
+                    break;
+                }
+                position += transferred;
+            }
+        }
+    }
+}
@@ -1,21 +1,40 @@
 package com.ibra.simple_full_stack.controller;
 
+import com.ibra.simple_full_stack.cache.GalleryResponseCache;
+import com.ibra.simple_full_stack.dto.BatchUploadResultDto;
+import com.ibra.simple_full_stack.dto.BulkDeleteRequest;
+import com.ibra.simple_full_stack.dto.BulkDeleteResultDto;
+import com.ibra.simple_full_stack.dto.PhotoDetail;
 import com.ibra.simple_full_stack.dto.PhotoDto;
+import com.ibra.simple_full_stack.dto.PhotoFacetsDto;
+import com.ibra.simple_full_stack.dto.PhotoPageDto;
+import com.ibra.simple_full_stack.dto.PhotoSearchResultDto;
 import com.ibra.simple_full_stack.dto.PhotoUploadRequest;
+import com.ibra.simple_full_stack.dto.UploadJobDto;
+import com.ibra.simple_full_stack.service.PhotoEventService;
 import com.ibra.simple_full_stack.service.PhotoService;
+import com.ibra.simple_full_stack.service.UploadJobService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.net.URI;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
@@ -27,9 +46,16 @@ import java.util.Map;
 public class PhotoController {
 
     private final PhotoService photoService;
+    private final UploadJobService uploadJobService;
+    private final PhotoEventService photoEventService;
+    private final GalleryResponseCache galleryResponseCache;
 
-    public PhotoController(PhotoService photoService) {
+    public PhotoController(PhotoService photoService, UploadJobService uploadJobService,
+                           PhotoEventService photoEventService, GalleryResponseCache galleryResponseCache) {
         this.photoService = photoService;
+        this.uploadJobService = uploadJobService;
+        this.photoEventService = photoEventService;
+        this.galleryResponseCache = galleryResponseCache;
     }
 
     @Operation(summary = "Upload a new photo", description = "Upload a photo file with description and metadata")
@@ -71,32 +97,236 @@ public class PhotoController {
         return ResponseEntity.status(HttpStatus.CREATED).body(uploadedPhoto);
     }
 
-    @Operation(summary = "Get all photos", description = "Retrieve all photos ordered by creation date (newest first)")
-    @ApiResponse(responseCode = "200", description = "Photos retrieved successfully")
+    @Operation(summary = "Upload several photos",
+            description = "Upload a batch of photo files in one request; each file succeeds or fails independently")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "All photos uploaded successfully"),
+            @ApiResponse(responseCode = "207", description = "Some photos failed; see the per-file results"),
+            @ApiResponse(responseCode = "400", description = "Empty or oversized batch"),
+            @ApiResponse(responseCode = "413", description = "Request too large")
+    })
+    @PostMapping(value = "/upload/batch", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<BatchUploadResultDto> uploadPhotos(
+            @Parameter(description = "Image files to upload", required = true)
+            @RequestParam("files") List<MultipartFile> files,
+
+            @Parameter(description = "Per-file descriptions, in the same order as the files")
+            @RequestParam(value = "descriptions", required = false) List<String> descriptions,
+
+            @Parameter(description = "Description used for files without their own")
+            @RequestParam(value = "description", required = false) String description,
+
+            @Parameter(description = "Photo tags (comma-separated), applied to every file")
+            @RequestParam(value = "tags", required = false) String tags,
+
+            @Parameter(description = "Photo location, applied to every file")
+            @RequestParam(value = "location", required = false) String location,
+
+            @Parameter(description = "Photo category, applied to every file")
+            @RequestParam(value = "category", required = false) String category) {
+
+        log.info("Received batch upload request with {} files", files.size());
+
+        List<PhotoUploadRequest> uploadRequests = new ArrayList<>(files.size());
+        for (int i = 0; i < files.size(); i++) {
+            String fileDescription = descriptions != null && i < descriptions.size()
+                    && descriptions.get(i) != null && !descriptions.get(i).isBlank()
+                    ? descriptions.get(i)
+                    : description;
+
+            uploadRequests.add(PhotoUploadRequest.builder()
+                    .description(fileDescription)
+                    .tags(tags)
+                    .location(location)
+                    .category(category)
+                    .build());
+        }
+
+        BatchUploadResultDto result = photoService.uploadPhotos(files, uploadRequests);
+
+        log.info("Batch upload completed: {} succeeded, {} failed", result.getSucceeded(), result.getFailed());
+        HttpStatus status = result.getFailed() == 0 ? HttpStatus.CREATED : HttpStatus.MULTI_STATUS;
+        return ResponseEntity.status(status).body(result);
+    }
+
+    @Operation(summary = "Upload a new photo asynchronously",
+            description = "Accept a photo for background upload and return a job that can be polled for its status")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Upload accepted and queued"),
+            @ApiResponse(responseCode = "400", description = "Invalid file or request data"),
+            @ApiResponse(responseCode = "413", description = "File too large"),
+            @ApiResponse(responseCode = "503", description = "Upload queue is full")
+    })
+    @PostMapping(value = "/upload/async", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<UploadJobDto> uploadPhotoAsync(
+            @Parameter(description = "Image file to upload", required = true)
+            @RequestParam("file") MultipartFile file,
+
+            @Parameter(description = "Photo description", required = true)
+            @RequestParam("description") String description,
+
+            @Parameter(description = "Photo tags (comma-separated)")
+            @RequestParam(value = "tags", required = false) String tags,
+
+            @Parameter(description = "Photo location")
+            @RequestParam(value = "location", required = false) String location,
+
+            @Parameter(description = "Photo category")
+            @RequestParam(value = "category", required = false) String category) {
+
+        log.info("Received async photo upload request for file: {}", file.getOriginalFilename());
+
+        PhotoUploadRequest uploadRequest = PhotoUploadRequest.builder()
+                .description(description)
+                .tags(tags)
+                .location(location)
+                .category(category)
+                .build();
+
+        UploadJobDto job = uploadJobService.submit(file, uploadRequest);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/photos/uploads/" + job.getJobId()))
+                .body(job);
+    }
+
+    @Operation(summary = "Get upload job status", description = "Check the progress of an asynchronous upload")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Job found"),
+            @ApiResponse(responseCode = "404", description = "Job not found or expired")
+    })
+    @GetMapping("/uploads/{jobId}")
+    public ResponseEntity<UploadJobDto> getUploadJob(
+            @Parameter(description = "Upload job ID", required = true)
+            @PathVariable String jobId) {
+
+        return ResponseEntity.ok(uploadJobService.getJob(jobId));
+    }
+
+    @Operation(summary = "Get all photos",
+            description = "Retrieve all photos ordered by creation date (newest first); filter by tag through /page")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Photos retrieved successfully",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            array = @ArraySchema(schema = @Schema(implementation = PhotoDto.class)))),
+            @ApiResponse(responseCode = "304", description = "Photos unchanged since the If-None-Match ETag")
+    })
     @GetMapping
-    public ResponseEntity<List<PhotoDto>> getAllPhotos() {
+    public ResponseEntity<byte[]> getAllPhotos(WebRequest webRequest) {
+        // Answer conditional requests from the fingerprint alone, before any row is loaded or serialized
+        String eTag = photoService.getPhotosETag();
+        if (webRequest.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).cacheControl(CacheControl.noCache()).build();
+        }
+
+        // The gallery is written from pre-serialized bytes while its ETag and every timeAgo still hold
         log.debug("Fetching all photos");
+        byte[] body = galleryResponseCache.get(eTag, photoService::getAllPhotos);
+
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .cacheControl(CacheControl.noCache())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
+    @Operation(summary = "Stream gallery changes",
+            description = "Server-Sent Events of photos added, updated and deleted; send Last-Event-ID to resume, " +
+                    "a RESYNC event means the list must be reloaded")
+    @ApiResponse(responseCode = "200", description = "Event stream opened")
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamEvents(
+            @Parameter(description = "ID of the last event received, sent automatically by EventSource on reconnect")
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noStore())
+                // Stops reverse proxies from buffering the stream
+                .header("X-Accel-Buffering", "no")
+                .body(photoEventService.subscribe(lastEventId));
+    }
+
+    @Operation(summary = "Get a page of photos",
+            description = "Retrieve photos newest first using cursor pagination, optionally filtered by tag; " +
+                    "pass nextCursor from the previous page to continue")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Page retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor, page size, tags or match")
+    })
+    @GetMapping("/page")
+    public ResponseEntity<PhotoPageDto> getPhotosPage(
+            @Parameter(description = "Opaque cursor returned as nextCursor by the previous page")
+            @RequestParam(value = "cursor", required = false) String cursor,
+
+            @Parameter(description = "Number of photos per page")
+            @RequestParam(value = "size", required = false) Integer size,
+
+            @Parameter(description = "Only photos with these tags; repeat the parameter or separate with commas")
+            @RequestParam(value = "tag", required = false) List<String> tags,
+
+            @Parameter(description = "With several tags: 'any' (default) or 'all'")
+            @RequestParam(value = "match", defaultValue = "any") String match) {
+        if (!"any".equalsIgnoreCase(match) && !"all".equalsIgnoreCase(match)) {
+            throw new IllegalArgumentException("match must be 'any' or 'all'");
+        }
+
+        log.debug("Fetching photo page (cursor present: {}, tags: {})", cursor != null, tags);
+
+        PhotoPageDto page = tags == null || tags.isEmpty()
+                ? photoService.getPhotosPage(cursor, size)
+                : photoService.getPhotosByTags(tags, "all".equalsIgnoreCase(match), cursor, size);
+        return ResponseEntity.ok(page);
+    }
+
+    @Operation(summary = "Get facet counts",
+            description = "Number of photos per category, location and tag, for filtering sidebars")
+    @ApiResponse(responseCode = "200", description = "Facet counts retrieved successfully")
+    @GetMapping("/facets")
+    public ResponseEntity<PhotoFacetsDto> getFacets() {
+        return ResponseEntity.ok(photoService.getFacets());
+    }
+
+    @Operation(summary = "Search photos",
+            description = "Full-text search over description, tags, category and location, ranked by relevance")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Search completed"),
+            @ApiResponse(responseCode = "400", description = "Missing or too long query, or invalid page")
+    })
+    @GetMapping("/search")
+    public ResponseEntity<PhotoSearchResultDto> searchPhotos(
+            @Parameter(description = "Search terms; quoted phrases, OR and -word are supported", required = true)
+            @RequestParam("q") String query,
+
+            @Parameter(description = "Zero-based page number")
+            @RequestParam(value = "page", defaultValue = "0") int page,
+
+            @Parameter(description = "Number of photos per page")
+            @RequestParam(value = "size", required = false) Integer size) {
 
-        List<PhotoDto> photos = photoService.getAllPhotos();
+        log.debug("Searching photos (page {})", page);
 
-        log.debug("Retrieved {} photos", photos.size());
-        return ResponseEntity.ok(photos);
+        return ResponseEntity.ok(photoService.searchPhotos(query, page, size));
     }
 
     @Operation(summary = "Get photo by ID", description = "Retrieve a specific photo by its ID")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Photo found"),
+            @ApiResponse(responseCode = "304", description = "Photo unchanged since the If-None-Match ETag"),
             @ApiResponse(responseCode = "404", description = "Photo not found")
     })
     @GetMapping("/{id}")
     public ResponseEntity<PhotoDto> getPhotoById(
             @Parameter(description = "Photo ID", required = true)
-            @PathVariable Long id) {
+            @PathVariable Long id,
+            WebRequest webRequest) {
 
         log.debug("Fetching photo with ID: {}", id);
 
-        PhotoDto photo = photoService.getPhotoById(id);
-        return ResponseEntity.ok(photo);
+        PhotoDetail detail = photoService.getPhotoDetail(id);
+        if (webRequest.checkNotModified(detail.eTag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(detail.eTag()).cacheControl(CacheControl.noCache()).build();
+        }
+
+        return ResponseEntity.ok().eTag(detail.eTag()).cacheControl(CacheControl.noCache()).body(detail.photo());
     }
 
     @Operation(summary = "Update photo description", description = "Update the description of an existing photo")
@@ -146,6 +376,19 @@ public class PhotoController {
         }
     }
 
+    @Operation(summary = "Delete several photos", description = "Delete up to the configured number of photos in one request")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Request processed; see the per-ID results"),
+            @ApiResponse(responseCode = "400", description = "No IDs or too many IDs")
+    })
+    @PostMapping("/bulk-delete")
+    public ResponseEntity<BulkDeleteResultDto> deletePhotos(@Valid @RequestBody BulkDeleteRequest request) {
+        log.info("Bulk deleting {} photos", request.getIds().size());
+
+        BulkDeleteResultDto result = photoService.deletePhotos(request.getIds());
+        return ResponseEntity.ok(result);
+    }
+
     @Operation(summary = "Refresh presigned URL", description = "Generate a new presigned URL for an existing photo")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "URL refreshed successfully"),
@@ -0,0 +1,26 @@
+package com.ibra.simple_full_stack.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchUploadItemDto {
+
+    // Position of the file in the request
+    private int index;
+    private String originalFileName;
+    private boolean success;
+
+    // Set on success
+    private PhotoDto photo;
+
+    // Set on failure
+    private String error;
+}
@@ -0,0 +1,20 @@
+package com.ibra.simple_full_stack.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchUploadResultDto {
+
+    private int total;
+    private int succeeded;
+    private int failed;
+    private List<BatchUploadItemDto> results;
+}
@@ -0,0 +1,16 @@
+package com.ibra.simple_full_stack.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkDeleteItemDto {
+
+    private Long id;
+    private BulkDeleteStatus status;
+}
@@ -0,0 +1,19 @@
+package com.ibra.simple_full_stack.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkDeleteRequest {
+
+    @NotEmpty(message = "At least one photo ID is required")
+    private List<Long> ids;
+}
@@ -0,0 +1,6 @@
+package com.ibra.simple_full_stack.dto;
+
+public enum BulkDeleteStatus {
+    DELETED,
+    NOT_FOUND
+}
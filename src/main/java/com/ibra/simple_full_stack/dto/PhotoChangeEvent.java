@@ -0,0 +1,22 @@
+package com.ibra.simple_full_stack.dto;
+
+/**
+ * A committed change to the gallery, pushed to event stream subscribers.
+ * @param type What happened to the photo
+ * @param photoId ID of the changed photo
+ * @param photo The photo after the change; null for deletions
+ */
+public record PhotoChangeEvent(PhotoChangeType type, Long photoId, PhotoDto photo) {
+
+    public static PhotoChangeEvent added(PhotoDto photo) {
+        return new PhotoChangeEvent(PhotoChangeType.ADDED, photo.getId(), photo);
+    }
+
+    public static PhotoChangeEvent updated(PhotoDto photo) {
+        return new PhotoChangeEvent(PhotoChangeType.UPDATED, photo.getId(), photo);
+    }
+
+    public static PhotoChangeEvent deleted(Long photoId) {
+        return new PhotoChangeEvent(PhotoChangeType.DELETED, photoId, null);
+    }
+}
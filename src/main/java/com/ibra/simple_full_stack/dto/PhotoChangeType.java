@@ -0,0 +1,7 @@
+package com.ibra.simple_full_stack.dto;
+
+public enum PhotoChangeType {
+    ADDED,
+    UPDATED,
+    DELETED
+}
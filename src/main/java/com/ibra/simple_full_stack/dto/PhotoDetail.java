@@ -0,0 +1,7 @@
+package com.ibra.simple_full_stack.dto;
+
+/**
+ * A photo and its ETag, both built from the same row so a client never pairs a new tag with an old body.
+ */
+public record PhotoDetail(String eTag, PhotoDto photo) {
+}
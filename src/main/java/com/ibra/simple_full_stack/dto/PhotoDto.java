@@ -7,6 +7,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
+import java.util.Map;
 
 @Data
 @Builder
@@ -19,6 +20,10 @@ public class PhotoDto {
     private String description;
     private String presignedUrl;
     
+    // Downscaled variants keyed by width; thumbnailUrl is the smallest, or the original if there are none
+    private String thumbnailUrl;
+    private Map<Integer, String> variantUrls;
+    
     @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
     private LocalDateTime createdAt;
     
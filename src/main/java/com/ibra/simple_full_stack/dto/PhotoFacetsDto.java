@@ -0,0 +1,20 @@
+package com.ibra.simple_full_stack.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PhotoFacetsDto {
+
+    // Photo count per value, most common first
+    private Map<String, Long> categories;
+    private Map<String, Long> locations;
+    private Map<String, Long> tags;
+}
@@ -0,0 +1,9 @@
+package com.ibra.simple_full_stack.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Aggregate that changes whenever a photo is added, updated or removed; used to build the list ETag.
+ */
+public record PhotoListFingerprint(Long count, LocalDateTime lastUpdatedAt, Long maxId) {
+}
@@ -0,0 +1,22 @@
+package com.ibra.simple_full_stack.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PhotoPageDto {
+
+    private List<PhotoDto> photos;
+    private int size;
+
+    // Opaque cursor for the next page, null on the last page
+    private String nextCursor;
+    private boolean hasMore;
+}
@@ -0,0 +1,23 @@
+package com.ibra.simple_full_stack.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PhotoSearchResultDto {
+
+    private String query;
+
+    // Best match first
+    private List<PhotoDto> photos;
+    private int page;
+    private int size;
+    private boolean hasMore;
+}
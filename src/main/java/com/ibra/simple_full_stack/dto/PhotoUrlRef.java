@@ -0,0 +1,9 @@
+package com.ibra.simple_full_stack.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Minimal projection of a photo used by the presigned URL refresher.
+ */
+public record PhotoUrlRef(Long id, String fileName, LocalDateTime presignedUrlExpiresAt) {
+}
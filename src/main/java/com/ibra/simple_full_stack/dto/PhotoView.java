@@ -0,0 +1,21 @@
+package com.ibra.simple_full_stack.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read-only projection of the columns PhotoDto is built from; never enters the persistence context.
+ * The version travels with the row so an ETag and the body built from one view always agree.
+ */
+public record PhotoView(Long id,
+                        String fileName,
+                        String originalFileName,
+                        String description,
+                        String presignedUrl,
+                        LocalDateTime presignedUrlExpiresAt,
+                        Long fileSize,
+                        String contentType,
+                        String variantWidths,
+                        LocalDateTime createdAt,
+                        LocalDateTime updatedAt,
+                        Integer version) {
+}
@@ -0,0 +1,11 @@
+package com.ibra.simple_full_stack.dto;
+
+/**
+ * An S3 object shared by every photo with the same content hash
+ * @param contentHash Hex SHA-256 of the object's bytes
+ * @param fileName The object's filename in S3
+ * @param variantWidths Comma-separated widths of the object's stored variants, may be null
+ * @param reused Whether an existing object was reused instead of uploading
+ */
+public record StoredBlob(String contentHash, String fileName, String variantWidths, boolean reused) {
+}
@@ -0,0 +1,42 @@
+package com.ibra.simple_full_stack.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class UploadJobDto {
+
+    private String jobId;
+    private UploadJobStatus status;
+    private String originalFileName;
+    private Long fileSize;
+
+    // A job holds one file today; filesDone reaches filesTotal when it completes
+    private Integer filesTotal;
+    private Integer filesDone;
+
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime queuedAt;
+
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime startedAt;
+
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime completedAt;
+
+    // Set once the job has completed
+    private PhotoDto photo;
+
+    // Set if the job has failed
+    private String error;
+}
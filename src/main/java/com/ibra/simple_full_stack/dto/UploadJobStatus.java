@@ -0,0 +1,8 @@
+package com.ibra.simple_full_stack.dto;
+
+public enum UploadJobStatus {
+    QUEUED,
+    PROCESSING,
+    COMPLETED,
+    FAILED
+}
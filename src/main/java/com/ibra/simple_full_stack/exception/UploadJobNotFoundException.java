@@ -0,0 +1,11 @@
+package com.ibra.simple_full_stack.exception;
+
+public class UploadJobNotFoundException extends RuntimeException {
+    public UploadJobNotFoundException(String message) {
+        super(message);
+    }
+
+    public UploadJobNotFoundException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
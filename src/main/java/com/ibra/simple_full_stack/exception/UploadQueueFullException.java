@@ -0,0 +1,11 @@
+package com.ibra.simple_full_stack.exception;
+
+public class UploadQueueFullException extends RuntimeException {
+    public UploadQueueFullException(String message) {
+        super(message);
+    }
+
+    public UploadQueueFullException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
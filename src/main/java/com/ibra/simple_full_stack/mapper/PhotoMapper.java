@@ -1,36 +1,98 @@
 package com.ibra.simple_full_stack.mapper;
 
+import com.ibra.simple_full_stack.cache.PresignedUrlCache;
 import com.ibra.simple_full_stack.dto.PhotoDto;
+import com.ibra.simple_full_stack.dto.PhotoView;
 import com.ibra.simple_full_stack.model.Photo;
+import com.ibra.simple_full_stack.service.ImageVariantService;
 import com.ibra.simple_full_stack.util.FileUtils;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 @Component
 public class PhotoMapper {
 
+    private final PresignedUrlCache presignedUrlCache;
+    private final ImageVariantService imageVariantService;
+
+    public PhotoMapper(PresignedUrlCache presignedUrlCache, ImageVariantService imageVariantService) {
+        this.presignedUrlCache = presignedUrlCache;
+        this.imageVariantService = imageVariantService;
+    }
+
     public PhotoDto convertToDto(Photo photo) {
         if (photo == null) {
             return null;
         }
 
+        return convertToDto(new PhotoView(photo.getId(), photo.getFileName(), photo.getOriginalFileName(),
+                photo.getDescription(), photo.getPresignedUrl(), photo.getPresignedUrlExpiresAt(), photo.getFileSize(),
+                photo.getContentType(), photo.getVariantWidths(), photo.getCreatedAt(), photo.getUpdatedAt(),
+                photo.getVersion()));
+    }
+
+    public PhotoDto convertToDto(PhotoView photo) {
+        if (photo == null) {
+            return null;
+        }
+
+        String presignedUrl = presignedUrlCache.getUrl(
+                photo.fileName(), photo.presignedUrl(), photo.presignedUrlExpiresAt());
+        Map<Integer, String> variantUrls = variantUrls(photo.fileName(), photo.variantWidths());
+
         return PhotoDto.builder()
-                .id(photo.getId())
-                .fileName(photo.getFileName())
-                .originalFileName(photo.getOriginalFileName())
-                .description(photo.getDescription())
-                .presignedUrl(photo.getPresignedUrl())
-                .fileSize(photo.getFileSize())
-                .contentType(photo.getContentType())
-                .createdAt(photo.getCreatedAt())
-                .updatedAt(photo.getUpdatedAt())
-                .fileSizeFormatted(FileUtils.formatFileSize(photo.getFileSize()))
-                .timeAgo(calculateTimeAgo(photo.getCreatedAt()))
+                .id(photo.id())
+                .fileName(photo.fileName())
+                .originalFileName(photo.originalFileName())
+                .description(photo.description())
+                .presignedUrl(presignedUrl)
+                .thumbnailUrl(variantUrls.isEmpty() ? presignedUrl : variantUrls.values().iterator().next())
+                .variantUrls(variantUrls)
+                .fileSize(photo.fileSize())
+                .contentType(photo.contentType())
+                .createdAt(photo.createdAt())
+                .updatedAt(photo.updatedAt())
+                .fileSizeFormatted(FileUtils.formatFileSize(photo.fileSize()))
+                .timeAgo(calculateTimeAgo(photo.createdAt()))
                 .build();
     }
 
+    private Map<Integer, String> variantUrls(String fileName, String variantWidths) {
+        Map<Integer, String> variantUrls = new LinkedHashMap<>();
+        if (variantWidths == null || variantWidths.isBlank()) {
+            return variantUrls;
+        }
+
+        for (String width : variantWidths.split(",")) {
+            int pixels = Integer.parseInt(width.trim());
+            variantUrls.put(pixels, presignedUrlCache.getUrl(imageVariantService.variantFileName(fileName, pixels)));
+        }
+        return variantUrls;
+    }
+
+    /**
+     * Earliest moment the timeAgo text for a photo can read differently. Past the first day it only
+     * changes on day boundaries, so day granularity is exact enough.
+     * @param createdAt When the photo was created
+     * @param now The current time
+     * @return Time after which a cached timeAgo is stale
+     */
+    public LocalDateTime nextTimeAgoChange(LocalDateTime createdAt, LocalDateTime now) {
+        long minutes = ChronoUnit.MINUTES.between(createdAt, now);
+        if (minutes < 60) {
+            return createdAt.plusMinutes(Math.max(minutes, 0) + 1);
+        }
+        long hours = ChronoUnit.HOURS.between(createdAt, now);
+        if (hours < 24) {
+            return createdAt.plusHours(hours + 1);
+        }
+        return createdAt.plusDays(ChronoUnit.DAYS.between(createdAt, now) + 1);
+    }
+
     private String calculateTimeAgo(LocalDateTime dateTime) {
         if (dateTime == null) return "Unknown";
 
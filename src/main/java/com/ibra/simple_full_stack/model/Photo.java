@@ -1,5 +1,6 @@
 package com.ibra.simple_full_stack.model;
 
+import com.ibra.simple_full_stack.dto.PhotoView;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -16,33 +17,64 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 @Entity
 @Table(name = "photos", indexes = {
-        @Index(name = "idx_photo_created_at", columnList = "createdAt"),
-        @Index(name = "idx_photo_file_name", columnList = "fileName")
+        @Index(name = "idx_photo_created_at", columnList = "createdAt, id"),
+        @Index(name = "idx_photo_file_name", columnList = "fileName"),
+        @Index(name = "idx_photo_content_hash", columnList = "contentHash"),
+        @Index(name = "idx_photo_presigned_url_expires_at", columnList = "presignedUrlExpiresAt, id")
 })
+// Maps native reads that join the unmapped tag tables onto PhotoView; columns in record order
+@SqlResultSetMapping(name = "PhotoView", classes = @ConstructorResult(targetClass = PhotoView.class, columns = {
+        @ColumnResult(name = "id", type = Long.class),
+        @ColumnResult(name = "file_name", type = String.class),
+        @ColumnResult(name = "original_file_name", type = String.class),
+        @ColumnResult(name = "description", type = String.class),
+        @ColumnResult(name = "presigned_url", type = String.class),
+        @ColumnResult(name = "presigned_url_expires_at", type = LocalDateTime.class),
+        @ColumnResult(name = "file_size", type = Long.class),
+        @ColumnResult(name = "content_type", type = String.class),
+        @ColumnResult(name = "variant_widths", type = String.class),
+        @ColumnResult(name = "created_at", type = LocalDateTime.class),
+        @ColumnResult(name = "updated_at", type = LocalDateTime.class),
+        @ColumnResult(name = "version", type = Integer.class)
+}))
 public class Photo {
 
+    // Pooled sequence instead of IDENTITY so Hibernate can batch inserts
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "photo_id_seq")
+    @SequenceGenerator(name = "photo_id_seq", sequenceName = "photos_id_seq", allocationSize = 50)
     private Long id;
 
-    @Column(nullable = false, unique = true)
+    // Not unique: photos with identical content share one object
+    @Column(nullable = false)
     private String fileName;
 
+    // SHA-256 of the content, keying the shared object in photo_blobs; null for photos that own their object
+    @Column(length = 64)
+    private String contentHash;
+
     @Column(nullable = false)
     private String originalFileName;
 
     @Column(nullable = false, length = 500)
     private String description;
 
-    @Column(nullable = false, length = 2048)
+    // Last URL signed for this photo; reads go through PresignedUrlCache and fall back to it while valid
+    @Column(length = 2048)
     private String presignedUrl;
 
+    private LocalDateTime presignedUrlExpiresAt;
+
     @Column(nullable = false)
     private Long fileSize;
 
     @Column(nullable = false)
     private String contentType;
 
+    // Comma-separated widths of the downscaled variants stored next to the original, null if none
+    @Column(length = 64)
+    private String variantWidths;
+
     // Optional metadata fields
     private String tags;
     private String location;
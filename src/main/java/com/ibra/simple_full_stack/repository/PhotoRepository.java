@@ -1,10 +1,108 @@
 package com.ibra.simple_full_stack.repository;
 
+import com.ibra.simple_full_stack.dto.PhotoListFingerprint;
+import com.ibra.simple_full_stack.dto.PhotoUrlRef;
+import com.ibra.simple_full_stack.dto.PhotoView;
 import com.ibra.simple_full_stack.model.Photo;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.NativeQuery;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface PhotoRepository extends JpaRepository<Photo, Long> {
-    List<Photo> findAllByOrderByCreatedAtDesc();
-}
\ No newline at end of file
+
+    // Read paths select straight into PhotoView records: no managed entities, snapshots or version checks
+    String VIEW_SELECT = "SELECT new com.ibra.simple_full_stack.dto.PhotoView(p.id, p.fileName, p.originalFileName, " +
+            "p.description, p.presignedUrl, p.presignedUrlExpiresAt, p.fileSize, p.contentType, p.variantWidths, " +
+            "p.createdAt, p.updatedAt, p.version) FROM Photo p ";
+
+    @Query(VIEW_SELECT + "ORDER BY p.createdAt DESC, p.id DESC")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500")
+    })
+    List<PhotoView> findAllViews();
+
+    @Query(VIEW_SELECT + "WHERE p.id = :id")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    Optional<PhotoView> findViewById(@Param("id") Long id);
+
+    @Query(VIEW_SELECT + "WHERE p.id IN :ids")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    List<PhotoView> findViewsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Ranked over the GIN-indexed search_vector column (V9); returns ids only so rows are loaded as views
+    @Query(value = "SELECT p.id FROM photos p, websearch_to_tsquery('english', :query) q " +
+            "WHERE p.search_vector @@ q " +
+            "ORDER BY ts_rank_cd(p.search_vector, q) DESC, p.id DESC " +
+            "LIMIT :limit OFFSET :offset", nativeQuery = true)
+    List<Long> searchIds(@Param("query") String query, @Param("limit") int limit, @Param("offset") long offset);
+
+    // Native twin of VIEW_SELECT for reads over the unmapped tag tables, mapped by the "PhotoView" result set mapping
+    String NATIVE_VIEW_SELECT = "SELECT p.id, p.file_name, p.original_file_name, p.description, p.presigned_url, " +
+            "p.presigned_url_expires_at, p.file_size, p.content_type, p.variant_widths, p.created_at, p.updated_at, " +
+            "p.version FROM photos p ";
+
+    // A photo qualifies once it carries `required` of the given tags; the match runs on idx_photo_tags_tag_photo
+    String TAGGED = "p.id IN (SELECT pt.photo_id FROM photo_tags pt JOIN tags t ON t.id = pt.tag_id " +
+            "WHERE t.name IN (:tags) GROUP BY pt.photo_id HAVING COUNT(*) >= :required) ";
+
+    @NativeQuery(value = NATIVE_VIEW_SELECT + "WHERE " + TAGGED + "ORDER BY p.created_at DESC, p.id DESC",
+            sqlResultSetMapping = "PhotoView")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    List<PhotoView> findTaggedFirstPage(@Param("tags") Collection<String> tags, @Param("required") long required,
+                                        Pageable pageable);
+
+    @NativeQuery(value = NATIVE_VIEW_SELECT + "WHERE " + TAGGED + "AND (p.created_at, p.id) < (:createdAt, :id) " +
+            "ORDER BY p.created_at DESC, p.id DESC", sqlResultSetMapping = "PhotoView")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    List<PhotoView> findTaggedPageAfter(@Param("tags") Collection<String> tags, @Param("required") long required,
+                                        @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id,
+                                        Pageable pageable);
+
+    // Separate scalar subqueries so each MAX reads one end of the id or updated_at index; a combined
+    // aggregate falls back to a sequential scan. COUNT still visits every entry, but of the narrowest index
+    @Query("SELECT new com.ibra.simple_full_stack.dto.PhotoListFingerprint(" +
+            "(SELECT COUNT(p) FROM Photo p), (SELECT MAX(p.updatedAt) FROM Photo p), (SELECT MAX(p.id) FROM Photo p))")
+    PhotoListFingerprint findListFingerprint();
+
+    // Pages are limited by the Pageable, so the driver's default fetch size already reads them in one go
+    @Query(VIEW_SELECT + "ORDER BY p.createdAt DESC, p.id DESC")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    List<PhotoView> findFirstPage(Pageable pageable);
+
+    // Row-value comparison, so Postgres seeks to the cursor on idx_photo_created_at (created_at, id) and
+    // reads one range; the equivalent OR form is applied as a filter and deep pages slow down
+    @Query(VIEW_SELECT +
+            "WHERE (p.createdAt, p.id) < (:createdAt, :id) " +
+            "ORDER BY p.createdAt DESC, p.id DESC")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    List<PhotoView> findPageAfter(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable pageable);
+
+    @Query("SELECT new com.ibra.simple_full_stack.dto.PhotoUrlRef(p.id, p.fileName, p.presignedUrlExpiresAt) " +
+            "FROM Photo p WHERE p.presignedUrlExpiresAt IS NULL AND p.id > :afterId ORDER BY p.id")
+    List<PhotoUrlRef> findUrlsWithoutExpiry(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT new com.ibra.simple_full_stack.dto.PhotoUrlRef(p.id, p.fileName, p.presignedUrlExpiresAt) " +
+            "FROM Photo p WHERE p.presignedUrlExpiresAt < :threshold " +
+            "AND (p.presignedUrlExpiresAt > :afterExpiresAt " +
+            "OR (p.presignedUrlExpiresAt = :afterExpiresAt AND p.id > :afterId)) " +
+            "ORDER BY p.presignedUrlExpiresAt, p.id")
+    List<PhotoUrlRef> findUrlsExpiringBefore(@Param("threshold") LocalDateTime threshold,
+                                             @Param("afterExpiresAt") LocalDateTime afterExpiresAt,
+                                             @Param("afterId") Long afterId,
+                                             Pageable pageable);
+
+    // Answered from the front of idx_photo_presigned_url_expires_at
+    @Query("SELECT MIN(p.presignedUrlExpiresAt) FROM Photo p")
+    LocalDateTime findEarliestUrlExpiry();
+}
@@ -0,0 +1,27 @@
+package com.ibra.simple_full_stack.service;
+
+import com.ibra.simple_full_stack.dto.PhotoFacetsDto;
+import com.ibra.simple_full_stack.model.Photo;
+
+import java.util.Collection;
+
+public interface FacetService {
+
+    /**
+     * Count newly stored photos towards their category, location and tag facets; call in the saving transaction
+     * @param photos The photos that were added
+     */
+    void recordAdded(Collection<Photo> photos);
+
+    /**
+     * Remove deleted photos from their category, location and tag facets; call in the deleting transaction
+     * @param photos The photos that were deleted
+     */
+    void recordRemoved(Collection<Photo> photos);
+
+    /**
+     * Read the current facet counts
+     * @return PhotoFacetsDto with counts per category, location and tag
+     */
+    PhotoFacetsDto getFacets();
+}
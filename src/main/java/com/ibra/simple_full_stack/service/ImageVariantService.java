@@ -0,0 +1,32 @@
+package com.ibra.simple_full_stack.service;
+
+import org.springframework.web.multipart.MultipartFile;
+
+import java.util.List;
+
+public interface ImageVariantService {
+
+    /**
+     * Generate downscaled variants of an uploaded image and store them next to the original
+     * @param file The uploaded original
+     * @param fileName The original's filename in S3
+     * @return Widths of the variants that were stored, smallest first; empty if none could be made
+     */
+    List<Integer> generateVariants(MultipartFile file, String fileName);
+
+    /**
+     * Derive the S3 filename of a variant
+     * @param fileName The original's filename in S3
+     * @param width Variant width in pixels
+     * @return Filename of the variant
+     */
+    String variantFileName(String fileName, int width);
+
+    /**
+     * Derive the S3 filenames of all stored variants of a photo
+     * @param fileName The original's filename in S3
+     * @param variantWidths Comma-separated variant widths as stored on the photo, may be null
+     * @return Variant filenames, empty if the photo has none
+     */
+    List<String> variantFileNames(String fileName, String variantWidths);
+}
@@ -0,0 +1,22 @@
+package com.ibra.simple_full_stack.service;
+
+import com.ibra.simple_full_stack.dto.StoredBlob;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.util.Collection;
+
+public interface PhotoBlobService {
+
+    /**
+     * Store a file by content, reusing the existing object (and its variants) when the same bytes were uploaded before
+     * @param file The validated file to store
+     * @return The blob now referenced once more by the caller
+     */
+    StoredBlob store(MultipartFile file);
+
+    /**
+     * Drop one reference per entry; blobs left without references are removed from S3 after commit
+     * @param contentHashes Content hashes to release, repeated once per reference
+     */
+    void release(Collection<String> contentHashes);
+}
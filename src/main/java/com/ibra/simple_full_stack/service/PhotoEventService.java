@@ -0,0 +1,13 @@
+package com.ibra.simple_full_stack.service;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+public interface PhotoEventService {
+
+    /**
+     * Open an event stream of committed gallery changes
+     * @param lastEventId ID of the last event the client received, to resume after a reconnect; may be null
+     * @return Emitter that receives replayed events (or a RESYNC event) followed by live ones
+     */
+    SseEmitter subscribe(String lastEventId);
+}
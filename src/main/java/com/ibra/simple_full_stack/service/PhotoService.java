@@ -1,6 +1,12 @@
 package com.ibra.simple_full_stack.service;
 
+import com.ibra.simple_full_stack.dto.BatchUploadResultDto;
+import com.ibra.simple_full_stack.dto.BulkDeleteResultDto;
+import com.ibra.simple_full_stack.dto.PhotoDetail;
 import com.ibra.simple_full_stack.dto.PhotoDto;
+import com.ibra.simple_full_stack.dto.PhotoFacetsDto;
+import com.ibra.simple_full_stack.dto.PhotoPageDto;
+import com.ibra.simple_full_stack.dto.PhotoSearchResultDto;
 import com.ibra.simple_full_stack.dto.PhotoUploadRequest;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -15,6 +21,22 @@ public interface PhotoService {
      * @return PhotoDto with presigned URL and metadata
      */
     PhotoDto uploadPhoto(MultipartFile file, PhotoUploadRequest uploadRequest);
+
+    /**
+     * Upload several photos: validate all, upload the valid ones to S3 concurrently and save
+     * their metadata in one batched insert
+     * @param files The uploaded files
+     * @param uploadRequests Metadata for each file, aligned with files by index
+     * @return BatchUploadResultDto with a success or failure entry per file
+     */
+    BatchUploadResultDto uploadPhotos(List<MultipartFile> files, List<PhotoUploadRequest> uploadRequests);
+
+    /**
+     * Validate an uploaded file against the size and content type limits
+     * @param file The uploaded file
+     * @throws com.ibra.simple_full_stack.exception.PhotoUploadException if the file is not acceptable
+     */
+    void validateFile(MultipartFile file);
     
     /**
      * Get all photos ordered by creation date descending
@@ -22,6 +44,45 @@ public interface PhotoService {
      */
     List<PhotoDto> getAllPhotos();
     
+    /**
+     * Get one page of photos carrying the given tags, ordered by creation date descending, using keyset pagination
+     * @param tags Tag names to filter on
+     * @param matchAll true to require every tag, false to require any of them
+     * @param cursor Opaque cursor from a previous page, or null for the first page
+     * @param size Requested page size, or null for the default
+     * @return PhotoPageDto with the photos and the cursor for the next page
+     */
+    PhotoPageDto getPhotosByTags(List<String> tags, boolean matchAll, String cursor, Integer size);
+
+    /**
+     * Get photo counts per category, location and tag
+     * @return PhotoFacetsDto read from the maintained summary table
+     */
+    PhotoFacetsDto getFacets();
+
+    /**
+     * Get the entity tag of the full photo list without loading it
+     * @return ETag value that changes when any photo is added, updated or removed
+     */
+    String getPhotosETag();
+
+    /**
+     * Get one page of photos ordered by creation date descending, using keyset pagination
+     * @param cursor Opaque cursor from a previous page, or null for the first page
+     * @param size Requested page size, or null for the default
+     * @return PhotoPageDto with the photos and the cursor for the next page
+     */
+    PhotoPageDto getPhotosPage(String cursor, Integer size);
+
+    /**
+     * Full-text search over description, tags, category and location
+     * @param query Search terms; supports quoted phrases, OR and -exclusions
+     * @param page Zero-based page number
+     * @param size Requested page size, or null for the default
+     * @return PhotoSearchResultDto with matches ranked best first
+     */
+    PhotoSearchResultDto searchPhotos(String query, int page, Integer size);
+    
     /**
      * Get a specific photo by ID
      * @param id Photo ID
@@ -29,6 +90,13 @@ public interface PhotoService {
      */
     PhotoDto getPhotoById(Long id);
     
+    /**
+     * Get a photo with its entity tag, both from the same cached row
+     * @param id Photo ID
+     * @return The photo and an ETag derived from its version
+     */
+    PhotoDetail getPhotoDetail(Long id);
+    
     /**
      * Delete a photo by ID
      * @param id Photo ID
@@ -36,6 +104,14 @@ public interface PhotoService {
      */
     boolean deletePhoto(Long id);
     
+    /**
+     * Delete several photos: objects are removed with multi-object S3 deletes and rows with a
+     * single set-based statement. A row is only deleted once its object is gone.
+     * @param ids Photo IDs
+     * @return BulkDeleteResultDto with an outcome per ID
+     */
+    BulkDeleteResultDto deletePhotos(List<Long> ids);
+    
     /**
      * Update photo description
      * @param id Photo ID
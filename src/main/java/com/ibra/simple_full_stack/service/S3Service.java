@@ -2,6 +2,9 @@ package com.ibra.simple_full_stack.service;
 
 import org.springframework.web.multipart.MultipartFile;
 
+import java.util.Collection;
+import java.util.Set;
+
 public interface S3Service {
     
     /**
@@ -12,6 +15,15 @@ public interface S3Service {
      */
     boolean uploadFile(MultipartFile file, String fileName);
     
+    /**
+     * Upload an in-memory object, such as a generated image variant, to S3 bucket
+     * @param content The bytes to upload
+     * @param fileName The filename to use in S3
+     * @param contentType MIME type of the content
+     * @return true if upload successful, false otherwise
+     */
+    boolean uploadBytes(byte[] content, String fileName, String contentType);
+    
     /**
      * Generate a presigned URL for a file in S3
      * @param fileName The filename in S3
@@ -27,6 +39,13 @@ public interface S3Service {
      */
     boolean deleteFile(String fileName);
     
+    /**
+     * Delete several files from S3 bucket using multi-object delete requests
+     * @param fileNames The filenames to delete
+     * @return The filenames that were deleted; any others failed
+     */
+    Set<String> deleteFiles(Collection<String> fileNames);
+    
     /**
      * Check if a file exists in S3 bucket
      * @param fileName The filename to check
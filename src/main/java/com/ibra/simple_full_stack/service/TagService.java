@@ -0,0 +1,20 @@
+package com.ibra.simple_full_stack.service;
+
+import java.util.List;
+import java.util.Map;
+
+public interface TagService {
+
+    /**
+     * Normalize a comma-separated tag string: trimmed, lower-cased, de-duplicated, blanks dropped
+     * @param tags Tags as submitted, may be null
+     * @return Normalized tag names in submission order
+     */
+    List<String> parseTags(String tags);
+
+    /**
+     * Link photos to their tags, creating tags that do not exist yet; photos must already be flushed
+     * @param tagsByPhotoId Comma-separated tags keyed by photo ID
+     */
+    void assignTags(Map<Long, String> tagsByPhotoId);
+}
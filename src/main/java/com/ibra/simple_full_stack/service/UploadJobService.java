@@ -0,0 +1,24 @@
+package com.ibra.simple_full_stack.service;
+
+import com.ibra.simple_full_stack.dto.PhotoUploadRequest;
+import com.ibra.simple_full_stack.dto.UploadJobDto;
+import org.springframework.web.multipart.MultipartFile;
+
+public interface UploadJobService {
+
+    /**
+     * Validate and spool a photo, then queue it for upload in the background
+     * @param file The uploaded file
+     * @param uploadRequest Upload request containing description and other metadata
+     * @return UploadJobDto describing the queued job
+     * @throws com.ibra.simple_full_stack.exception.UploadQueueFullException if the upload queue is full
+     */
+    UploadJobDto submit(MultipartFile file, PhotoUploadRequest uploadRequest);
+
+    /**
+     * Get the current state of an upload job
+     * @param jobId Job ID returned by submit
+     * @return UploadJobDto with the job status, and the photo once completed
+     */
+    UploadJobDto getJob(String jobId);
+}
@@ -0,0 +1,117 @@
+package com.ibra.simple_full_stack.service.impl;
+
+import com.ibra.simple_full_stack.dto.PhotoFacetsDto;
+import com.ibra.simple_full_stack.model.Photo;
+import com.ibra.simple_full_stack.service.FacetService;
+import com.ibra.simple_full_stack.service.TagService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Maintains photo_facets, so facet reads cost one row per distinct value instead of a GROUP BY over photos.
+ */
+@Slf4j
+@Service
+public class FacetServiceImpl implements FacetService {
+
+    private static final String CATEGORY = "category";
+    private static final String LOCATION = "location";
+    private static final String TAG = "tag";
+
+    private static final String INCREMENT_SQL =
+            "INSERT INTO photo_facets (facet, value, photo_count) VALUES (?, ?, ?) " +
+            "ON CONFLICT (facet, value) DO UPDATE SET photo_count = photo_facets.photo_count + EXCLUDED.photo_count";
+    private static final String DECREMENT_SQL =
+            "UPDATE photo_facets SET photo_count = photo_count - ? WHERE facet = ? AND value = ?";
+    private static final String SELECT_SQL =
+            "SELECT facet, value, photo_count FROM photo_facets WHERE photo_count > 0 " +
+            "ORDER BY facet, photo_count DESC, value";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TagService tagService;
+
+    public FacetServiceImpl(JdbcTemplate jdbcTemplate, TagService tagService) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.tagService = tagService;
+    }
+
+    @Override
+    public void recordAdded(Collection<Photo> photos) {
+        Map<FacetKey, Long> counts = count(photos);
+        if (counts.isEmpty()) {
+            return;
+        }
+
+        List<Object[]> batchArgs = new ArrayList<>(counts.size());
+        counts.forEach((key, count) -> batchArgs.add(new Object[]{key.facet(), key.value(), count}));
+        jdbcTemplate.batchUpdate(INCREMENT_SQL, batchArgs);
+    }
+
+    @Override
+    public void recordRemoved(Collection<Photo> photos) {
+        Map<FacetKey, Long> counts = count(photos);
+        if (counts.isEmpty()) {
+            return;
+        }
+
+        // Rows left at zero are filtered out on read and revived by the next upsert
+        List<Object[]> batchArgs = new ArrayList<>(counts.size());
+        counts.forEach((key, count) -> batchArgs.add(new Object[]{count, key.facet(), key.value()}));
+        jdbcTemplate.batchUpdate(DECREMENT_SQL, batchArgs);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PhotoFacetsDto getFacets() {
+        Map<String, Long> categories = new LinkedHashMap<>();
+        Map<String, Long> locations = new LinkedHashMap<>();
+        Map<String, Long> tags = new LinkedHashMap<>();
+
+        jdbcTemplate.query(SELECT_SQL, rs -> {
+            Map<String, Long> target = switch (rs.getString("facet")) {
+                case CATEGORY -> categories;
+                case LOCATION -> locations;
+                default -> tags;
+            };
+            target.put(rs.getString("value"), rs.getLong("photo_count"));
+        });
+
+        return PhotoFacetsDto.builder()
+                .categories(categories)
+                .locations(locations)
+                .tags(tags)
+                .build();
+    }
+
+    /**
+     * Sorted so concurrent transactions always lock facet rows in the same order and cannot deadlock
+     */
+    private Map<FacetKey, Long> count(Collection<Photo> photos) {
+        Map<FacetKey, Long> counts = new TreeMap<>(Comparator.comparing(FacetKey::facet).thenComparing(FacetKey::value));
+        for (Photo photo : photos) {
+            if (photo.getCategory() != null && !photo.getCategory().isBlank()) {
+                counts.merge(new FacetKey(CATEGORY, photo.getCategory()), 1L, Long::sum);
+            }
+            if (photo.getLocation() != null && !photo.getLocation().isBlank()) {
+                counts.merge(new FacetKey(LOCATION, photo.getLocation()), 1L, Long::sum);
+            }
+            for (String tag : tagService.parseTags(photo.getTags())) {
+                counts.merge(new FacetKey(TAG, tag), 1L, Long::sum);
+            }
+        }
+        return counts;
+    }
+
+    private record FacetKey(String facet, String value) {
+    }
+}
@@ -0,0 +1,264 @@
+package com.ibra.simple_full_stack.service.impl;
+
+import com.ibra.simple_full_stack.service.S3Service;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Properties;
+import java.util.Set;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * S3Service backed by a local directory, for on-prem sites and tests. Active with the
+ * "filesystem" profile in place of {@link S3ServiceImpl}.
+ * <p>
+ * Objects are written to a temporary file in the same directory, forced to disk and renamed into
+ * place atomically, so readers see either the old object or the complete new one, never a partial
+ * write. Content type and original name live in a sidecar under {@code .meta}, as S3 keeps them in
+ * object metadata. URLs are signed by {@link FileUrlSigner} and served by the file download controller.
+ */
+@Slf4j
+@Service
+@Profile("filesystem")
+public class FileSystemS3ServiceImpl implements S3Service {
+
+    // SigV4 presigned URLs cannot outlive a week; keep the same limit so both backends behave alike
+    private static final int MAX_URL_DURATION_DAYS = 7;
+    private static final String DEFAULT_CONTENT_TYPE = "application/octet-stream";
+    // Keys never start with a dot, so they cannot collide with temporary files or the metadata directory
+    private static final Pattern VALID_KEY = Pattern.compile("[a-zA-Z0-9_-][a-zA-Z0-9._-]{0,254}");
+    private static final Pattern UNSAFE_FILENAME_CHARS = Pattern.compile("[^a-zA-Z0-9._-]");
+
+    private final FileUrlSigner urlSigner;
+    private final Path root;
+    private final Path metadataDir;
+    private final String baseUrl;
+
+    public FileSystemS3ServiceImpl(FileUrlSigner urlSigner,
+                                   @Value("${storage.filesystem.root:./data/photos}") String root,
+                                   @Value("${storage.filesystem.base-url:}") String baseUrl) throws IOException {
+        this.urlSigner = urlSigner;
+        this.root = Path.of(root).toAbsolutePath().normalize();
+        this.metadataDir = this.root.resolve(".meta");
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+
+        Files.createDirectories(metadataDir);
+        log.info("Filesystem storage initialized at {}", this.root);
+    }
+
+    @Override
+    public boolean uploadFile(MultipartFile file, String fileName) {
+        try (InputStream inputStream = file.getInputStream()) {
+            write(fileName, file.getContentType(), file.getOriginalFilename(), target -> {
+                try (ReadableByteChannel source = Channels.newChannel(inputStream)) {
+                    long written = 0;
+                    while (written < file.getSize()) {
+                        long transferred = target.transferFrom(source, written, file.getSize() - written);
+                        if (transferred <= 0) {
+                            break;
+                        }
+                        written += transferred;
+                    }
+                    if (written != file.getSize()) {
+                        throw new IOException("Expected " + file.getSize() + " bytes but read " + written);
+                    }
+                }
+            });
+
+            log.info("Successfully stored file {} in {}", fileName, root);
+            return true;
+
+        } catch (Exception e) {
+            log.error("Failed to store file {}: {}", fileName, e.getMessage(), e);
+            return false;
+        }
+    }
+
+    @Override
+    public boolean uploadBytes(byte[] content, String fileName, String contentType) {
+        try {
+            write(fileName, contentType, null, target -> {
+                ByteBuffer buffer = ByteBuffer.wrap(content);
+                while (buffer.hasRemaining()) {
+                    target.write(buffer);
+                }
+            });
+
+            log.debug("Stored {} bytes to {} in {}", content.length, fileName, root);
+            return true;
+
+        } catch (Exception e) {
+            log.error("Failed to store file {}: {}", fileName, e.getMessage(), e);
+            return false;
+        }
+    }
+
+    @Override
+    public String generatePresignedUrl(String fileName, int durationInDays) {
+        try {
+            if (durationInDays < 1 || durationInDays > MAX_URL_DURATION_DAYS) {
+                throw new IllegalArgumentException("URL duration must be between 1 and " + MAX_URL_DURATION_DAYS + " days");
+            }
+            checkKey(fileName);
+
+            long expiresAt = Instant.now().plusSeconds(durationInDays * 86_400L).getEpochSecond();
+            String url = baseUrl + "/files/" + fileName
+                    + "?expires=" + expiresAt + "&signature=" + urlSigner.sign(fileName, expiresAt);
+
+            log.debug("Generated signed URL for file {} valid for {} days", fileName, durationInDays);
+            return url;
+
+        } catch (Exception e) {
+            log.error("Failed to generate signed URL for file {}: {}", fileName, e.getMessage(), e);
+            return null;
+        }
+    }
+
+    @Override
+    public boolean deleteFile(String fileName) {
+        try {
+            // As with S3, deleting a key that does not exist succeeds
+            Files.deleteIfExists(objectPath(fileName));
+            Files.deleteIfExists(metadataPath(fileName));
+
+            log.info("Successfully deleted file {} from {}", fileName, root);
+            return true;
+
+        } catch (Exception e) {
+            log.error("Failed to delete file {}: {}", fileName, e.getMessage(), e);
+            return false;
+        }
+    }
+
+    @Override
+    public Set<String> deleteFiles(Collection<String> fileNames) {
+        Set<String> deleted = new HashSet<>();
+        for (String fileName : new LinkedHashSet<>(fileNames)) {
+            if (deleteFile(fileName)) {
+                deleted.add(fileName);
+            }
+        }
+        return deleted;
+    }
+
+    @Override
+    public boolean doesFileExist(String fileName) {
+        try {
+            return Files.isRegularFile(objectPath(fileName));
+        } catch (IllegalArgumentException e) {
+            log.error("Error checking if file {} exists: {}", fileName, e.getMessage());
+            return false;
+        }
+    }
+
+    @Override
+    public String generateUniqueFileName(String originalFilename) {
+        if (originalFilename == null || originalFilename.trim().isEmpty()) {
+            return UUID.randomUUID().toString();
+        }
+
+        return UUID.randomUUID().toString() + "_" + UNSAFE_FILENAME_CHARS.matcher(originalFilename).replaceAll("_");
+    }
+
+    /**
+     * Look up a stored object for download
+     * @param fileName The stored file name
+     * @return The object's path, size and content type, or null if it does not exist
+     * @throws IOException if the object or its metadata cannot be read
+     */
+    public StoredObject findObject(String fileName) throws IOException {
+        Path path = objectPath(fileName);
+        if (!Files.isRegularFile(path)) {
+            return null;
+        }
+
+        String contentType = DEFAULT_CONTENT_TYPE;
+        Path metadataPath = metadataPath(fileName);
+        if (Files.exists(metadataPath)) {
+            Properties metadata = new Properties();
+            try (InputStream in = Files.newInputStream(metadataPath)) {
+                metadata.load(in);
+            }
+            contentType = metadata.getProperty("content-type", DEFAULT_CONTENT_TYPE);
+        }
+        return new StoredObject(path, Files.size(path), contentType);
+    }
+
+    private void write(String fileName, String contentType, String originalFilename, ChannelWriter writer)
+            throws IOException {
+        Path target = objectPath(fileName);
+
+        Properties metadata = new Properties();
+        metadata.setProperty("content-type", contentType != null ? contentType : DEFAULT_CONTENT_TYPE);
+        if (originalFilename != null) {
+            metadata.setProperty("original-filename", originalFilename);
+        }
+        metadata.setProperty("upload-timestamp", String.valueOf(System.currentTimeMillis()));
+
+        // Metadata goes first: a sidecar without an object is ignored, an object without one is not served right
+        Path metadataTemp = Files.createTempFile(metadataDir, ".upload-", ".tmp");
+        Path objectTemp = Files.createTempFile(root, ".upload-", ".tmp");
+        try {
+            try (OutputStream out = Files.newOutputStream(metadataTemp)) {
+                metadata.store(out, null);
+            }
+            Files.move(metadataTemp, metadataPath(fileName),
+                    StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+
+            try (FileChannel channel = FileChannel.open(objectTemp, StandardOpenOption.WRITE)) {
+                writer.write(channel);
+                channel.force(false);
+            }
+            Files.move(objectTemp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(metadataTemp);
+            Files.deleteIfExists(objectTemp);
+        }
+    }
+
+    private Path objectPath(String fileName) {
+        checkKey(fileName);
+        return root.resolve(fileName);
+    }
+
+    private Path metadataPath(String fileName) {
+        checkKey(fileName);
+        return metadataDir.resolve(fileName + ".properties");
+    }
+
+    private static void checkKey(String fileName) {
+        if (fileName == null || !VALID_KEY.matcher(fileName).matches()) {
+            throw new IllegalArgumentException("Invalid storage key: " + fileName);
+        }
+    }
+
+    /**
+     * A stored object ready to be streamed to a client.
+     */
+    public record StoredObject(Path path, long size, String contentType) {
+    }
+
+    @FunctionalInterface
+    private interface ChannelWriter {
+        void write(FileChannel channel) throws IOException;
+    }
+}
@@ -0,0 +1,76 @@
+package com.ibra.simple_full_stack.service.impl;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * HMAC-SHA256 signatures for expiring file URLs served by the app, the filesystem backend's
+ * counterpart of S3 presigning. A signature covers the file name and the expiry, so neither can be
+ * changed without invalidating it.
+ */
+@Component
+@Profile("filesystem")
+public class FileUrlSigner {
+
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private final SecretKeySpec key;
+
+    public FileUrlSigner(@Value("${storage.filesystem.url-secret:}") String secret) {
+        if (secret == null || secret.isBlank()) {
+            throw new IllegalStateException("storage.filesystem.url-secret must be set for filesystem storage");
+        }
+        this.key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM);
+    }
+
+    /**
+     * Sign a file name together with its expiry
+     * @param fileName The stored file name
+     * @param expiresAt Expiry in epoch seconds
+     * @return URL-safe Base64 signature
+     */
+    public String sign(String fileName, long expiresAt) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(mac(fileName, expiresAt));
+    }
+
+    /**
+     * Check a signature and that it has not expired
+     * @param fileName The stored file name from the URL
+     * @param expiresAt Expiry in epoch seconds from the URL
+     * @param signature Signature from the URL
+     * @return true if the signature matches and is still valid
+     */
+    public boolean verify(String fileName, long expiresAt, String signature) {
+        if (expiresAt < Instant.now().getEpochSecond()) {
+            return false;
+        }
+
+        byte[] provided;
+        try {
+            provided = Base64.getUrlDecoder().decode(signature);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        return MessageDigest.isEqual(mac(fileName, expiresAt), provided);
+    }
+
+    private byte[] mac(String fileName, long expiresAt) {
+        try {
+            // Mac instances are not thread-safe, and creating one is cheap next to the request it signs
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac.doFinal((fileName + "\n" + expiresAt).getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package com.ibra.simple_full_stack.service.impl;
+
+import com.ibra.simple_full_stack.service.ImageVariantService;
+import com.ibra.simple_full_stack.service.S3Service;
+import com.ibra.simple_full_stack.util.ExifOrientation;
+import com.ibra.simple_full_stack.util.FileUtils;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+@Service
+public class ImageVariantServiceImpl implements ImageVariantService {
+
+    private static final Set<String> ALPHA_CONTENT_TYPES = Set.of("image/png", "image/gif");
+
+    private final S3Service s3Service;
+    private final MeterRegistry meterRegistry;
+    private final Timer pipelineTimer;
+
+    @Value("${photo.variants.enabled:true}")
+    private boolean enabled;
+
+    @Value("${photo.variants.widths:200,800}")
+    private List<Integer> widths;
+
+    @Value("${photo.variants.max-source-size:50MB}")
+    private DataSize maxSourceSize;
+
+    @Value("${photo.variants.jpeg-quality:0.85}")
+    private float jpegQuality;
+
+    public ImageVariantServiceImpl(S3Service s3Service, MeterRegistry meterRegistry) {
+        this.s3Service = s3Service;
+        this.meterRegistry = meterRegistry;
+        this.pipelineTimer = Timer.builder("photo.variants.pipeline")
+                .description("Time to decode an original and produce all of its variants")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public List<Integer> generateVariants(MultipartFile file, String fileName) {
+        if (!enabled || widths.isEmpty()) {
+            return List.of();
+        }
+        if (file.getSize() > maxSourceSize.toBytes()) {
+            log.info("Skipping variants for {}: {} exceeds {}", fileName,
+                    FileUtils.formatFileSize(file.getSize()), FileUtils.formatFileSize(maxSourceSize.toBytes()));
+            return List.of();
+        }
+
+        long startTime = System.nanoTime();
+        List<Integer> targetWidths = widths.stream().sorted().distinct().toList();
+        List<Integer> stored = new ArrayList<>();
+
+        try {
+            BufferedImage source = decode(file, targetWidths.get(targetWidths.size() - 1));
+            if (source == null) {
+                log.info("Skipping variants for {}: no image reader for {}", fileName, file.getContentType());
+                return List.of();
+            }
+
+            boolean keepAlpha = file.getContentType() != null
+                    && ALPHA_CONTENT_TYPES.contains(file.getContentType().toLowerCase());
+            String format = keepAlpha ? "png" : "jpeg";
+            String contentType = keepAlpha ? "image/png" : "image/jpeg";
+
+            for (int width : targetWidths) {
+                if (width >= source.getWidth()) {
+                    continue;
+                }
+
+                long encodeStart = System.nanoTime();
+                byte[] encoded = encode(resize(source, width, keepAlpha), format);
+                Timer.builder("photo.variants.encode")
+                        .description("Time to resize and encode one variant")
+                        .tag("width", String.valueOf(width))
+                        .register(meterRegistry)
+                        .record(System.nanoTime() - encodeStart, TimeUnit.NANOSECONDS);
+
+                if (s3Service.uploadBytes(encoded, variantFileName(fileName, width), contentType)) {
+                    stored.add(width);
+                    meterRegistry.counter("photo.variants.bytes", "width", String.valueOf(width))
+                            .increment(encoded.length);
+                } else {
+                    log.warn("Failed to store {}px variant of {}", width, fileName);
+                }
+            }
+
+        } catch (IOException | RuntimeException e) {
+            // Variants are an optimisation; the original upload still succeeds without them
+            log.error("Failed to generate variants for {}: {}", fileName, e.getMessage(), e);
+        } finally {
+            pipelineTimer.record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+        }
+
+        log.debug("Stored variants {} for {}", stored, fileName);
+        return stored;
+    }
+
+    @Override
+    public String variantFileName(String fileName, int width) {
+        return fileName + "__w" + width;
+    }
+
+    @Override
+    public List<String> variantFileNames(String fileName, String variantWidths) {
+        if (variantWidths == null || variantWidths.isBlank()) {
+            return List.of();
+        }
+
+        List<String> fileNames = new ArrayList<>();
+        for (String width : variantWidths.split(",")) {
+            fileNames.add(variantFileName(fileName, Integer.parseInt(width.trim())));
+        }
+        return fileNames;
+    }
+
+    /**
+     * Decode the image upright, subsampling while reading so a large original never lands in memory at full
+     * resolution. Camera JPEGs store the sensor's pixels and say how to turn them in the EXIF Orientation tag.
+     */
+    private BufferedImage decode(MultipartFile file, int largestTargetWidth) throws IOException {
+        try (InputStream inputStream = file.getInputStream();
+             ImageInputStream imageInputStream = ImageIO.createImageInputStream(inputStream)) {
+
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(imageInputStream);
+            if (!readers.hasNext()) {
+                return null;
+            }
+
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(imageInputStream, true, false);
+                int orientation = ExifOrientation.read(reader.getImageMetadata(0));
+
+                // Keep at least twice the largest target width so the final resize still has detail to work with;
+                // a rotated photo is displayed as wide as it is stored high
+                int displayedWidth = ExifOrientation.swapsAxes(orientation) ? reader.getHeight(0) : reader.getWidth(0);
+                int subsampling = Math.max(1, displayedWidth / (largestTargetWidth * 2));
+                ImageReadParam readParam = reader.getDefaultReadParam();
+                readParam.setSourceSubsampling(subsampling, subsampling, 0, 0);
+
+                return ExifOrientation.apply(reader.read(0, readParam), orientation);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private BufferedImage resize(BufferedImage source, int width, boolean keepAlpha) {
+        int height = Math.max(1, Math.round((float) source.getHeight() * width / source.getWidth()));
+        BufferedImage target = new BufferedImage(width, height,
+                keepAlpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+
+        Graphics2D graphics = target.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+
+    private byte[] encode(BufferedImage image, String format) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName(format).next();
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        try (ImageOutputStream imageOutputStream = ImageIO.createImageOutputStream(outputStream)) {
+            writer.setOutput(imageOutputStream);
+
+            ImageWriteParam writeParam = writer.getDefaultWriteParam();
+            if ("jpeg".equals(format)) {
+                writeParam.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                writeParam.setCompressionQuality(jpegQuality);
+            }
+            writer.write(null, new IIOImage(image, null, null), writeParam);
+        } finally {
+            writer.dispose();
+        }
+
+        return outputStream.toByteArray();
+    }
+}
@@ -0,0 +1,195 @@
+package com.ibra.simple_full_stack.service.impl;
+
+import com.ibra.simple_full_stack.cache.PresignedUrlCache;
+import com.ibra.simple_full_stack.dto.StoredBlob;
+import com.ibra.simple_full_stack.exception.PhotoUploadException;
+import com.ibra.simple_full_stack.service.ImageVariantService;
+import com.ibra.simple_full_stack.service.PhotoBlobService;
+import com.ibra.simple_full_stack.service.S3Service;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Content-addressed storage: one S3 object per distinct SHA-256, reference-counted in photo_blobs.
+ * Statements use RETURNING so each acquire/release is a single atomic round trip.
+ */
+@Slf4j
+@Service
+public class PhotoBlobServiceImpl implements PhotoBlobService {
+
+    private static final int HASH_BUFFER_SIZE = 64 * 1024;
+
+    private static final String ACQUIRE_SQL =
+            "UPDATE photo_blobs SET ref_count = ref_count + 1 WHERE content_hash = ? " +
+            "RETURNING file_name, variant_widths";
+    private static final String REGISTER_SQL =
+            "INSERT INTO photo_blobs (content_hash, file_name, variant_widths, ref_count) VALUES (?, ?, ?, 1) " +
+            "ON CONFLICT (content_hash) DO UPDATE SET ref_count = photo_blobs.ref_count + 1 " +
+            "RETURNING file_name, variant_widths";
+    private static final String RELEASE_SQL =
+            "UPDATE photo_blobs SET ref_count = ref_count - ? WHERE content_hash = ?";
+    private static final String DELETE_UNREFERENCED_SQL =
+            "DELETE FROM photo_blobs WHERE content_hash = ANY(?) AND ref_count <= 0 " +
+            "RETURNING file_name, variant_widths";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final S3Service s3Service;
+    private final ImageVariantService imageVariantService;
+    private final PresignedUrlCache presignedUrlCache;
+    private final MeterRegistry meterRegistry;
+
+    public PhotoBlobServiceImpl(JdbcTemplate jdbcTemplate, S3Service s3Service,
+                                ImageVariantService imageVariantService, PresignedUrlCache presignedUrlCache,
+                                MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.s3Service = s3Service;
+        this.imageVariantService = imageVariantService;
+        this.presignedUrlCache = presignedUrlCache;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public StoredBlob store(MultipartFile file) {
+        long phaseStart = System.nanoTime();
+        String contentHash = hash(file);
+        phaseStart = recordPhase("hash", phaseStart);
+
+        List<StoredBlob> existing = jdbcTemplate.query(ACQUIRE_SQL,
+                (rs, rowNum) -> new StoredBlob(contentHash, rs.getString("file_name"), rs.getString("variant_widths"), true),
+                contentHash);
+        phaseStart = recordPhase("dedupe_lookup", phaseStart);
+        if (!existing.isEmpty()) {
+            meterRegistry.counter("photo.upload.deduplicated").increment();
+            log.info("Reusing stored object {} for duplicate upload {}", existing.get(0).fileName(), file.getOriginalFilename());
+            return existing.get(0);
+        }
+
+        String uniqueFileName = s3Service.generateUniqueFileName(file.getOriginalFilename());
+        if (!s3Service.uploadFile(file, uniqueFileName)) {
+            throw new PhotoUploadException("Failed to upload file to S3");
+        }
+        phaseStart = recordPhase("s3_upload", phaseStart);
+
+        // Thumbnails for the list view; failures here only cost the list view its smaller images
+        List<Integer> widths = imageVariantService.generateVariants(file, uniqueFileName);
+        String variantWidths = widths.isEmpty() ? null
+                : widths.stream().map(String::valueOf).collect(Collectors.joining(","));
+        phaseStart = recordPhase("variants", phaseStart);
+
+        StoredBlob registered = jdbcTemplate.queryForObject(REGISTER_SQL,
+                (rs, rowNum) -> new StoredBlob(contentHash, rs.getString("file_name"), rs.getString("variant_widths"),
+                        false),
+                contentHash, uniqueFileName, variantWidths);
+        recordPhase("register", phaseStart);
+
+        if (!uniqueFileName.equals(registered.fileName())) {
+            // A concurrent upload of the same bytes registered first; keep theirs and drop ours
+            log.info("Lost registration race for {}; reusing {}", uniqueFileName, registered.fileName());
+            deleteObjects(List.of(new StoredBlob(contentHash, uniqueFileName, variantWidths, false)));
+            return new StoredBlob(contentHash, registered.fileName(), registered.variantWidths(), true);
+        }
+
+        return registered;
+    }
+
+    @Override
+    public void release(Collection<String> contentHashes) {
+        if (contentHashes == null || contentHashes.isEmpty()) {
+            return;
+        }
+
+        Map<String, Long> references = contentHashes.stream()
+                .collect(Collectors.groupingBy(Function.identity(), Collectors.counting()));
+        List<Object[]> batchArgs = new ArrayList<>(references.size());
+        references.forEach((contentHash, count) -> batchArgs.add(new Object[]{count, contentHash}));
+        jdbcTemplate.batchUpdate(RELEASE_SQL, batchArgs);
+
+        // Rows are removed before the objects so a concurrent upload can never reuse an object being deleted
+        List<StoredBlob> unreferenced = jdbcTemplate.query(connection -> {
+                    PreparedStatement statement = connection.prepareStatement(DELETE_UNREFERENCED_SQL);
+                    Array hashes = connection.createArrayOf("varchar", references.keySet().toArray());
+                    statement.setArray(1, hashes);
+                    return statement;
+                },
+                (rs, rowNum) -> new StoredBlob(null, rs.getString("file_name"), rs.getString("variant_widths"), false));
+        if (unreferenced.isEmpty()) {
+            return;
+        }
+
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            // A rollback would bring the rows back, so the objects may only go once the delete is committed
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    deleteObjects(unreferenced);
+                }
+            });
+        } else {
+            deleteObjects(unreferenced);
+        }
+    }
+
+    private long recordPhase(String phase, long startNanos) {
+        long now = System.nanoTime();
+        meterRegistry.timer("photo.upload.phase", "phase", phase).record(now - startNanos, TimeUnit.NANOSECONDS);
+        return now;
+    }
+
+    private void deleteObjects(List<StoredBlob> blobs) {
+        List<String> fileNames = new ArrayList<>();
+        for (StoredBlob blob : blobs) {
+            fileNames.add(blob.fileName());
+            fileNames.addAll(imageVariantService.variantFileNames(blob.fileName(), blob.variantWidths()));
+        }
+
+        try {
+            if (s3Service.deleteFiles(fileNames).size() < fileNames.size()) {
+                log.warn("Failed to delete some unreferenced objects from S3: {}", fileNames);
+            }
+        } catch (Exception e) {
+            log.error("Failed to delete unreferenced objects {}: {}", fileNames, e.getMessage(), e);
+        }
+        fileNames.forEach(presignedUrlCache::evict);
+    }
+
+    /**
+     * Hash the upload by streaming it from the container's spool file, so the digest costs a local
+     * disk read rather than heap and is known before deciding whether to write to S3 at all
+     */
+    private String hash(MultipartFile file) {
+        try (InputStream inputStream = file.getInputStream()) {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] buffer = new byte[HASH_BUFFER_SIZE];
+            int read;
+            while ((read = inputStream.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+            return HexFormat.of().formatHex(digest.digest());
+
+        } catch (IOException e) {
+            throw new PhotoUploadException("Failed to read file content", e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,249 @@
+package com.ibra.simple_full_stack.service.impl;
+
+import com.ibra.simple_full_stack.dto.PhotoChangeEvent;
+import com.ibra.simple_full_stack.service.PhotoEventService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.Executor;
+
+/**
+ * Fans committed photo changes out to Server-Sent Event subscribers.
+ * Idle connections are async servlet requests, so they hold no thread. The subscriber set and replay buffer
+ * are only touched from the single photoEventExecutor thread, which keeps sequencing strictly ordered; the
+ * writes themselves run per subscriber on photoEventSendExecutor, so one slow client cannot hold up the rest.
+ * Events cover changes committed on this instance only; clients keep a slow fallback poll for the others.
+ */
+@Slf4j
+@Service
+public class PhotoEventServiceImpl implements PhotoEventService {
+
+    private static final String RESYNC_EVENT = "RESYNC";
+
+    private final Executor eventExecutor;
+    private final Executor sendExecutor;
+    private final Set<Subscriber> subscribers = new LinkedHashSet<>();
+    private final Deque<SequencedEvent> recentEvents = new ArrayDeque<>();
+
+    // Event IDs are <streamId>-<sequence>; a new streamId after a restart tells clients their position is gone
+    private final String streamId = Long.toString(System.currentTimeMillis(), 36);
+    private long sequence;
+
+    @Value("${photo.events.emitter-timeout:PT30M}")
+    private Duration emitterTimeout;
+
+    @Value("${photo.events.replay-size:1000}")
+    private int replaySize;
+
+    @Value("${photo.events.max-pending:2000}")
+    private int maxPending;
+
+    public PhotoEventServiceImpl(@Qualifier("photoEventExecutor") Executor eventExecutor,
+                                 @Qualifier("photoEventSendExecutor") Executor sendExecutor) {
+        this.eventExecutor = eventExecutor;
+        this.sendExecutor = sendExecutor;
+    }
+
+    @Override
+    public SseEmitter subscribe(String lastEventId) {
+        SseEmitter emitter = new SseEmitter(emitterTimeout.toMillis());
+        Subscriber subscriber = new Subscriber(emitter);
+        // Timed-out clients reconnect on their own with Last-Event-ID
+        emitter.onTimeout(emitter::complete);
+        emitter.onCompletion(() -> eventExecutor.execute(() -> subscribers.remove(subscriber)));
+
+        eventExecutor.execute(() -> {
+            if (replay(subscriber, lastEventId)) {
+                subscribers.add(subscriber);
+                log.debug("Event stream subscriber added ({} open)", subscribers.size());
+            }
+        });
+        return emitter;
+    }
+
+    /**
+     * Runs after the publishing transaction commits, or immediately when published outside one
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPhotoChange(PhotoChangeEvent event) {
+        try {
+            eventExecutor.execute(() -> {
+                SequencedEvent sequenced = new SequencedEvent(++sequence, event);
+                recentEvents.addLast(sequenced);
+                if (recentEvents.size() > replaySize) {
+                    recentEvents.removeFirst();
+                }
+                subscribers.removeIf(subscriber -> !subscriber.enqueue(toSse(sequenced)));
+            });
+        } catch (TaskRejectedException e) {
+            log.warn("Event queue full; dropped {} event for photo {}", event.type(), event.photoId());
+        }
+    }
+
+    @Scheduled(fixedRateString = "${photo.events.heartbeat-interval:PT20S}")
+    public void sendHeartbeats() {
+        // Keeps proxies and load balancers from closing idle streams, and flushes out dead connections
+        eventExecutor.execute(() -> subscribers.removeIf(
+                subscriber -> !subscriber.enqueue(SseEmitter.event().comment("heartbeat"))));
+    }
+
+    @PreDestroy
+    public void completeAll() {
+        eventExecutor.execute(() -> {
+            subscribers.forEach(subscriber -> subscriber.emitter().complete());
+            subscribers.clear();
+        });
+    }
+
+    /**
+     * Send what the client missed since lastEventId, or a RESYNC event when that position is no longer buffered
+     */
+    private boolean replay(Subscriber subscriber, String lastEventId) {
+        if (lastEventId == null || lastEventId.isBlank()) {
+            // A fresh client loads the list itself and only needs changes from here on
+            return true;
+        }
+
+        long lastSequence = parseSequence(lastEventId);
+        long oldestBuffered = recentEvents.isEmpty() ? sequence + 1 : recentEvents.peekFirst().sequence();
+        if (lastSequence < 0 || lastSequence > sequence || lastSequence + 1 < oldestBuffered) {
+            return subscriber.enqueue(SseEmitter.event().id(eventId(sequence)).name(RESYNC_EVENT).data(RESYNC_EVENT));
+        }
+
+        for (SequencedEvent event : recentEvents) {
+            if (event.sequence() > lastSequence && !subscriber.enqueue(toSse(event))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private long parseSequence(String lastEventId) {
+        int separator = lastEventId.lastIndexOf('-');
+        if (separator < 0 || !streamId.equals(lastEventId.substring(0, separator))) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(lastEventId.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private SseEmitter.SseEventBuilder toSse(SequencedEvent event) {
+        return SseEmitter.event()
+                .id(eventId(event.sequence()))
+                .name(event.change().type().name())
+                .data(event.change(), MediaType.APPLICATION_JSON);
+    }
+
+    private String eventId(long eventSequence) {
+        return streamId + "-" + eventSequence;
+    }
+
+    private record SequencedEvent(long sequence, PhotoChangeEvent change) {
+    }
+
+    /**
+     * One connection's outbox. Events are queued in sequence order and written by at most one drain task
+     * at a time; a client that falls maxPending events behind is dropped and resumes via Last-Event-ID.
+     */
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final Deque<SseEmitter.SseEventBuilder> pending = new ArrayDeque<>();
+        private boolean draining;
+        private boolean closed;
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        private SseEmitter emitter() {
+            return emitter;
+        }
+
+        /**
+         * @return false once the subscriber is closed and should be forgotten
+         */
+        private synchronized boolean enqueue(SseEmitter.SseEventBuilder event) {
+            if (closed) {
+                return false;
+            }
+            if (pending.size() >= maxPending) {
+                log.debug("Dropping event stream subscriber {} events behind", pending.size());
+                close(null);
+                return false;
+            }
+
+            pending.addLast(event);
+            if (!draining) {
+                draining = true;
+                try {
+                    sendExecutor.execute(this::drain);
+                } catch (TaskRejectedException e) {
+                    draining = false;
+                    close(e);
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void drain() {
+            while (true) {
+                SseEmitter.SseEventBuilder event;
+                synchronized (this) {
+                    event = pending.pollFirst();
+                    if (event == null || closed) {
+                        draining = false;
+                        return;
+                    }
+                }
+
+                try {
+                    emitter.send(event);
+                } catch (IOException | IllegalStateException e) {
+                    log.debug("Dropping event stream subscriber: {}", e.getMessage());
+                    synchronized (this) {
+                        draining = false;
+                        close(e);
+                    }
+                    return;
+                }
+            }
+        }
+
+        // Completion is handed to the send executor, since it waits for any write still stuck on this emitter
+        private void close(Exception error) {
+            closed = true;
+            pending.clear();
+            Runnable complete = () -> {
+                if (error == null) {
+                    emitter.complete();
+                } else {
+                    emitter.completeWithError(error);
+                }
+            };
+            try {
+                sendExecutor.execute(complete);
+            } catch (TaskRejectedException e) {
+                complete.run();
+            }
+        }
+    }
+}
@@ -1,22 +1,69 @@
 package com.ibra.simple_full_stack.service.impl;
 
+import com.ibra.simple_full_stack.cache.PhotoViewCache;
+import com.ibra.simple_full_stack.cache.PresignedUrlCache;
+import com.ibra.simple_full_stack.dto.BatchUploadItemDto;
+import com.ibra.simple_full_stack.dto.BatchUploadResultDto;
+import com.ibra.simple_full_stack.dto.BulkDeleteItemDto;
+import com.ibra.simple_full_stack.dto.BulkDeleteResultDto;
+import com.ibra.simple_full_stack.dto.BulkDeleteStatus;
+import com.ibra.simple_full_stack.dto.PhotoChangeEvent;
+import com.ibra.simple_full_stack.dto.PhotoDetail;
 import com.ibra.simple_full_stack.dto.PhotoDto;
+import com.ibra.simple_full_stack.dto.PhotoFacetsDto;
+import com.ibra.simple_full_stack.dto.PhotoListFingerprint;
+import com.ibra.simple_full_stack.dto.PhotoPageDto;
+import com.ibra.simple_full_stack.dto.PhotoSearchResultDto;
 import com.ibra.simple_full_stack.dto.PhotoUploadRequest;
+import com.ibra.simple_full_stack.dto.PhotoView;
+import com.ibra.simple_full_stack.dto.StoredBlob;
 import com.ibra.simple_full_stack.exception.PhotoNotFoundException;
 import com.ibra.simple_full_stack.exception.PhotoUploadException;
 import com.ibra.simple_full_stack.mapper.PhotoMapper;
 import com.ibra.simple_full_stack.model.Photo;
 import com.ibra.simple_full_stack.repository.PhotoRepository;
+import com.ibra.simple_full_stack.service.FacetService;
+import com.ibra.simple_full_stack.service.ImageVariantService;
+import com.ibra.simple_full_stack.service.PhotoBlobService;
 import com.ibra.simple_full_stack.service.PhotoService;
 import com.ibra.simple_full_stack.service.S3Service;
+import com.ibra.simple_full_stack.service.TagService;
 import com.ibra.simple_full_stack.util.FileUtils;
+import com.ibra.simple_full_stack.util.PageCursor;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -27,74 +74,225 @@ public class PhotoServiceImpl implements PhotoService {
     private final PhotoRepository photoRepository;
     private final S3Service s3Service;
     private final PhotoMapper photoMapper;
+    private final PresignedUrlCache presignedUrlCache;
+    private final PhotoViewCache photoViewCache;
+    private final ImageVariantService imageVariantService;
+    private final PhotoBlobService photoBlobService;
+    private final TagService tagService;
+    private final FacetService facetService;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MeterRegistry meterRegistry;
+    private final DistributionSummary uploadSizes;
+    private final Executor batchUploadExecutor;
 
-    private static final int PRESIGNED_URL_DURATION_DAYS = 3;
-    private static final long MAX_FILE_SIZE = 10 * 1024 * 1024; // 10MB
     private static final List<String> ALLOWED_CONTENT_TYPES = List.of(
             "image/jpeg", "image/jpg", "image/png", "image/gif", "image/webp"
     );
 
-    public PhotoServiceImpl(PhotoRepository photoRepository, S3Service s3Service, PhotoMapper photoMapper) {
+    @Value("${spring.servlet.multipart.max-file-size:10MB}")
+    private DataSize maxFileSize;
+
+    @Value("${photo.upload.batch.max-files:50}")
+    private int maxBatchFiles;
+
+    @Value("${photo.delete.bulk.max-ids:1000}")
+    private int maxBulkDeleteIds;
+
+    @Value("${photo.page.default-size:24}")
+    private int defaultPageSize;
+
+    @Value("${photo.page.max-size:100}")
+    private int maxPageSize;
+
+    @Value("${photo.search.max-query-length:200}")
+    private int maxSearchQueryLength;
+
+    // Bounds how stale timeAgo and signed URLs in a 304'd response can get; keep well below the URL refresh margin
+    @Value("${photo.etag.time-bucket:PT10M}")
+    private Duration eTagTimeBucket;
+
+    public PhotoServiceImpl(PhotoRepository photoRepository, S3Service s3Service, PhotoMapper photoMapper,
+                            PresignedUrlCache presignedUrlCache, PhotoViewCache photoViewCache,
+                            ImageVariantService imageVariantService,
+                            PhotoBlobService photoBlobService, TagService tagService, FacetService facetService,
+                            TransactionTemplate transactionTemplate, ApplicationEventPublisher eventPublisher,
+                            MeterRegistry meterRegistry,
+                            @Qualifier("batchUploadExecutor") Executor batchUploadExecutor) {
         this.photoRepository = photoRepository;
         this.s3Service = s3Service;
         this.photoMapper = photoMapper;
+        this.presignedUrlCache = presignedUrlCache;
+        this.photoViewCache = photoViewCache;
+        this.imageVariantService = imageVariantService;
+        this.photoBlobService = photoBlobService;
+        this.tagService = tagService;
+        this.facetService = facetService;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.meterRegistry = meterRegistry;
+        this.uploadSizes = DistributionSummary.builder("photo.upload.size")
+                .description("Size of accepted uploads")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        this.batchUploadExecutor = batchUploadExecutor;
     }
 
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public PhotoDto uploadPhoto(MultipartFile file, PhotoUploadRequest uploadRequest) {
         log.info("Starting photo upload process for file: {}", file.getOriginalFilename());
 
-        // Validate file
-        validateFile(file);
+        Timer.Sample uploadSample = Timer.start(meterRegistry);
+        long phaseStart = System.nanoTime();
 
+        // Validate file
         try {
-            // Generate unique filename
-            String uniqueFileName = s3Service.generateUniqueFileName(file.getOriginalFilename());
-
-            // Upload to S3
-            boolean uploadSuccess = s3Service.uploadFile(file, uniqueFileName);
-            if (!uploadSuccess) {
-                throw new PhotoUploadException("Failed to upload file to S3");
-            }
+            validateFile(file);
+        } catch (RuntimeException e) {
+            uploadSample.stop(meterRegistry.timer("photo.upload", "outcome", "rejected"));
+            throw e;
+        }
+        phaseStart = recordPhase("validate", phaseStart);
 
-            // Generate presigned URL
-            String presignedUrl = s3Service.generatePresignedUrl(uniqueFileName, PRESIGNED_URL_DURATION_DAYS);
-            if (presignedUrl == null) {
-                // Cleanup uploaded file
-                s3Service.deleteFile(uniqueFileName);
-                throw new PhotoUploadException("Failed to generate presigned URL");
-            }
+        // Hashing and the S3 transfer run outside any transaction so a large upload never holds a pooled connection
+        Photo storedPhoto;
+        try {
+            storedPhoto = storeFile(file, uploadRequest);
+        } catch (Exception e) {
+            uploadSample.stop(meterRegistry.timer("photo.upload", "outcome", "error"));
+            log.error("Error during photo upload: {}", e.getMessage(), e);
+            throw new PhotoUploadException("Failed to upload photo: " + e.getMessage());
+        }
 
-            // Create and save photo entity
-            Photo photo = Photo.builder()
-                    .fileName(uniqueFileName)
-                    .originalFileName(file.getOriginalFilename())
-                    .description(uploadRequest.getDescription())
-                    .presignedUrl(presignedUrl)
-                    .fileSize(file.getSize())
-                    .contentType(file.getContentType())
-                    .tags(uploadRequest.getTags())
-                    .location(uploadRequest.getLocation())
-                    .category(uploadRequest.getCategory())
-                    .build();
-
-            photo = photoRepository.save(photo);
+        try {
+            phaseStart = System.nanoTime();
+            Photo photo = transactionTemplate.execute(status -> {
+                // Flushed so photo_tags can reference the new row
+                Photo saved = photoRepository.saveAndFlush(storedPhoto);
+                if (saved.getTags() != null) {
+                    tagService.assignTags(Map.of(saved.getId(), saved.getTags()));
+                }
+                facetService.recordAdded(List.of(saved));
+                return saved;
+            });
+            recordPhase("db_save", phaseStart);
 
             log.info("Successfully uploaded photo with ID: {}", photo.getId());
-            return photoMapper.convertToDto(photo);
+            PhotoDto photoDto = photoMapper.convertToDto(photo);
+            eventPublisher.publishEvent(PhotoChangeEvent.added(photoDto));
+            uploadSample.stop(meterRegistry.timer("photo.upload", "outcome", "success"));
+            uploadSizes.record(file.getSize());
+            return photoDto;
 
         } catch (Exception e) {
+            uploadSample.stop(meterRegistry.timer("photo.upload", "outcome", "error"));
             log.error("Error during photo upload: {}", e.getMessage(), e);
+            // The row never committed, so drop this upload's reference; the object goes if nothing else shares it
+            photoBlobService.release(List.of(storedPhoto.getContentHash()));
             throw new PhotoUploadException("Failed to upload photo: " + e.getMessage());
         }
     }
 
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public BatchUploadResultDto uploadPhotos(List<MultipartFile> files, List<PhotoUploadRequest> uploadRequests) {
+        if (files == null || files.isEmpty()) {
+            throw new PhotoUploadException("At least one file is required");
+        }
+        if (files.size() > maxBatchFiles) {
+            throw new PhotoUploadException("A batch can contain at most " + maxBatchFiles + " files");
+        }
+
+        log.info("Starting batch upload of {} files", files.size());
+
+        BatchUploadItemDto[] results = new BatchUploadItemDto[files.size()];
+        Map<Integer, CompletableFuture<Photo>> pendingUploads = new LinkedHashMap<>();
+
+        // Validate everything first, then upload the valid files concurrently
+        for (int i = 0; i < files.size(); i++) {
+            MultipartFile file = files.get(i);
+            PhotoUploadRequest uploadRequest = uploadRequests.get(i);
+            try {
+                validateFile(file);
+                if (uploadRequest.getDescription() == null || uploadRequest.getDescription().isBlank()) {
+                    throw new PhotoUploadException("Description is required");
+                }
+            } catch (PhotoUploadException e) {
+                results[i] = failedItem(i, file, e.getMessage());
+                continue;
+            }
+            pendingUploads.put(i, CompletableFuture.supplyAsync(() -> storeFile(file, uploadRequest), batchUploadExecutor));
+        }
+
+        Map<Integer, Photo> storedPhotos = new LinkedHashMap<>();
+        pendingUploads.forEach((index, upload) -> {
+            try {
+                storedPhotos.put(index, upload.join());
+            } catch (CompletionException e) {
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                log.error("Batch upload of {} failed: {}", files.get(index).getOriginalFilename(), cause.getMessage());
+                results[index] = failedItem(index, files.get(index), cause.getMessage());
+            }
+        });
+
+        if (!storedPhotos.isEmpty()) {
+            try {
+                // One transaction for rows, tag links and facet counts; pooled ids let Hibernate send
+                // the inserts as JDBC batches
+                List<Photo> savedPhotos = transactionTemplate.execute(status -> {
+                    List<Photo> saved = photoRepository.saveAllAndFlush(new ArrayList<>(storedPhotos.values()));
+
+                    Map<Long, String> tagsByPhotoId = new LinkedHashMap<>();
+                    saved.stream()
+                            .filter(photo -> photo.getTags() != null)
+                            .forEach(photo -> tagsByPhotoId.put(photo.getId(), photo.getTags()));
+                    if (!tagsByPhotoId.isEmpty()) {
+                        tagService.assignTags(tagsByPhotoId);
+                    }
+                    facetService.recordAdded(saved);
+                    return saved;
+                });
+
+                int position = 0;
+                for (Integer index : storedPhotos.keySet()) {
+                    PhotoDto photoDto = photoMapper.convertToDto(savedPhotos.get(position++));
+                    results[index] = BatchUploadItemDto.builder()
+                            .index(index)
+                            .originalFileName(files.get(index).getOriginalFilename())
+                            .success(true)
+                            .photo(photoDto)
+                            .build();
+                    eventPublisher.publishEvent(PhotoChangeEvent.added(photoDto));
+                }
+
+            } catch (Exception e) {
+                log.error("Failed to save batch of {} photos: {}", storedPhotos.size(), e.getMessage(), e);
+                photoBlobService.release(storedPhotos.values().stream().map(Photo::getContentHash).toList());
+                storedPhotos.forEach((index, photo) -> {
+                    results[index] = failedItem(index, files.get(index), "Failed to save photo metadata");
+                });
+            }
+        }
+
+        List<BatchUploadItemDto> items = Arrays.asList(results);
+        int succeeded = (int) items.stream().filter(BatchUploadItemDto::isSuccess).count();
+
+        log.info("Batch upload finished: {} succeeded, {} failed", succeeded, items.size() - succeeded);
+        return BatchUploadResultDto.builder()
+                .total(items.size())
+                .succeeded(succeeded)
+                .failed(items.size() - succeeded)
+                .results(items)
+                .build();
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<PhotoDto> getAllPhotos() {
         log.debug("Fetching all photos from database");
 
-        List<Photo> photos = photoRepository.findAllByOrderByCreatedAtDesc();
+        List<PhotoView> photos = photoRepository.findAllViews();
         List<PhotoDto> photoDtos = photos.stream()
                 .map(photoMapper::convertToDto)
                 .collect(Collectors.toList());
@@ -105,16 +303,125 @@ public class PhotoServiceImpl implements PhotoService {
 
     @Override
     @Transactional(readOnly = true)
+    public PhotoPageDto getPhotosByTags(List<String> tags, boolean matchAll, String cursor, Integer size) {
+        List<String> names = tagService.parseTags(tags == null ? null : String.join(",", tags));
+        if (names.isEmpty()) {
+            throw new IllegalArgumentException("At least one tag is required");
+        }
+
+        int pageSize = resolvePageSize(size);
+        long required = matchAll ? names.size() : 1;
+        // Fetch one extra row to learn whether another page exists without a count query
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+
+        List<PhotoView> photos;
+        if (cursor == null || cursor.isBlank()) {
+            photos = photoRepository.findTaggedFirstPage(names, required, limit);
+        } else {
+            PageCursor pageCursor = PageCursor.decode(cursor);
+            photos = photoRepository.findTaggedPageAfter(names, required, pageCursor.createdAt(), pageCursor.id(), limit);
+        }
+
+        PhotoPageDto page = toPage(photos, pageSize);
+        log.debug("Retrieved page of {} photos tagged {} ({}, hasMore={})", page.getSize(), names,
+                matchAll ? "all" : "any", page.isHasMore());
+        return page;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PhotoFacetsDto getFacets() {
+        return facetService.getFacets();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public String getPhotosETag() {
+        PhotoListFingerprint fingerprint = photoRepository.findListFingerprint();
+        long lastUpdated = fingerprint.lastUpdatedAt() != null
+                ? Timestamp.valueOf(fingerprint.lastUpdatedAt()).getTime()
+                : 0L;
+        return "photos-" + fingerprint.count() + "-" + lastUpdated + "-" + fingerprint.maxId() + "-" + currentTimeBucket();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PhotoPageDto getPhotosPage(String cursor, Integer size) {
+        int pageSize = resolvePageSize(size);
+        // Fetch one extra row to learn whether another page exists without a count query
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+
+        List<PhotoView> photos;
+        if (cursor == null || cursor.isBlank()) {
+            photos = photoRepository.findFirstPage(limit);
+        } else {
+            PageCursor pageCursor = PageCursor.decode(cursor);
+            photos = photoRepository.findPageAfter(pageCursor.createdAt(), pageCursor.id(), limit);
+        }
+
+        PhotoPageDto page = toPage(photos, pageSize);
+        log.debug("Retrieved page of {} photos (hasMore={})", page.getSize(), page.isHasMore());
+        return page;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PhotoSearchResultDto searchPhotos(String query, int page, Integer size) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Search query is required");
+        }
+        if (query.length() > maxSearchQueryLength) {
+            throw new IllegalArgumentException("Search query must be at most " + maxSearchQueryLength + " characters");
+        }
+        if (page < 0) {
+            throw new IllegalArgumentException("Page must not be negative");
+        }
+
+        int pageSize = resolvePageSize(size);
+        String trimmedQuery = query.trim();
+
+        // Fetch one extra id to learn whether another page exists without a count query
+        List<Long> ids = photoRepository.searchIds(trimmedQuery, pageSize + 1, (long) page * pageSize);
+        boolean hasMore = ids.size() > pageSize;
+        if (hasMore) {
+            ids = ids.subList(0, pageSize);
+        }
+
+        // The IN query does not keep rank order, so put the views back in the order the ids came in
+        Map<Long, PhotoView> viewsById = ids.isEmpty() ? Map.of() : photoRepository.findViewsByIdIn(ids).stream()
+                .collect(Collectors.toMap(PhotoView::id, Function.identity()));
+        List<PhotoDto> photoDtos = ids.stream()
+                .map(viewsById::get)
+                .filter(Objects::nonNull)
+                .map(photoMapper::convertToDto)
+                .toList();
+
+        log.debug("Search '{}' page {} returned {} photos (hasMore={})", trimmedQuery, page, photoDtos.size(), hasMore);
+        return PhotoSearchResultDto.builder()
+                .query(trimmedQuery)
+                .photos(photoDtos)
+                .page(page)
+                .size(photoDtos.size())
+                .hasMore(hasMore)
+                .build();
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
     public PhotoDto getPhotoById(Long id) {
         log.debug("Fetching photo with ID: {}", id);
 
-        Optional<Photo> photo = photoRepository.findById(id);
-        if (photo.isEmpty()) {
-            log.warn("Photo not found with ID: {}", id);
-            throw new PhotoNotFoundException("Photo not found with ID: " + id);
-        }
+        return photoMapper.convertToDto(findCachedView(id));
+    }
 
-        return photoMapper.convertToDto(photo.get());
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public PhotoDetail getPhotoDetail(Long id) {
+        // One view feeds both, so the ETag can never name a newer version than the body
+        PhotoView photo = findCachedView(id);
+        int version = photo.version() != null ? photo.version() : 0;
+        String eTag = "photo-" + id + "-v" + version + "-" + currentTimeBucket();
+        return new PhotoDetail(eTag, photoMapper.convertToDto(photo));
     }
 
     @Override
@@ -130,14 +437,17 @@ public class PhotoServiceImpl implements PhotoService {
         Photo photo = photoOpt.get();
 
         try {
-            // Delete from S3
-            boolean s3DeleteSuccess = s3Service.deleteFile(photo.getFileName());
-            if (!s3DeleteSuccess) {
-                log.warn("Failed to delete file from S3: {}", photo.getFileName());
+            if (photo.getContentHash() != null) {
+                // Shared object: drop this photo's reference; the object goes once nothing points at it
+                photoRepository.delete(photo);
+                photoBlobService.release(List.of(photo.getContentHash()));
+            } else {
+                photoRepository.delete(photo);
+                deleteOwnedObjectsAfterCommit(List.of(photo));
             }
-
-            // Delete from database
-            photoRepository.delete(photo);
+            facetService.recordRemoved(List.of(photo));
+            photoViewCache.invalidate(List.of(id));
+            eventPublisher.publishEvent(PhotoChangeEvent.deleted(id));
 
             log.info("Successfully deleted photo with ID: {}", id);
             return true;
@@ -148,6 +458,55 @@ public class PhotoServiceImpl implements PhotoService {
         }
     }
 
+    @Override
+    public BulkDeleteResultDto deletePhotos(List<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            throw new IllegalArgumentException("At least one photo ID is required");
+        }
+        if (ids.size() > maxBulkDeleteIds) {
+            throw new IllegalArgumentException("At most " + maxBulkDeleteIds + " photos can be deleted at once");
+        }
+
+        Set<Long> requestedIds = new LinkedHashSet<>(ids);
+        log.info("Bulk deleting {} photos", requestedIds.size());
+
+        Map<Long, Photo> photosById = photoRepository.findAllById(requestedIds).stream()
+                .collect(Collectors.toMap(Photo::getId, Function.identity()));
+
+        // Photos with a content hash share a reference-counted object; older photos own theirs outright
+        Map<Boolean, List<Photo>> byOwnership = photosById.values().stream()
+                .collect(Collectors.partitioningBy(photo -> photo.getContentHash() != null));
+        List<Photo> sharedPhotos = byOwnership.get(true);
+        List<Photo> ownedPhotos = byOwnership.get(false);
+
+        // Rows go first in one set-based delete; objects are only removed once that delete has committed
+        Set<Long> deletedIds = photosById.keySet();
+        if (!deletedIds.isEmpty()) {
+            photoRepository.deleteAllByIdInBatch(deletedIds);
+        }
+        facetService.recordRemoved(new ArrayList<>(photosById.values()));
+        photoViewCache.invalidate(deletedIds);
+        deletedIds.forEach(id -> eventPublisher.publishEvent(PhotoChangeEvent.deleted(id)));
+        photoBlobService.release(sharedPhotos.stream().map(Photo::getContentHash).toList());
+        deleteOwnedObjectsAfterCommit(ownedPhotos);
+
+        List<BulkDeleteItemDto> results = new ArrayList<>(requestedIds.size());
+        for (Long id : requestedIds) {
+            BulkDeleteStatus status = deletedIds.contains(id) ? BulkDeleteStatus.DELETED : BulkDeleteStatus.NOT_FOUND;
+            results.add(BulkDeleteItemDto.builder().id(id).status(status).build());
+        }
+
+        int notFound = requestedIds.size() - deletedIds.size();
+
+        log.info("Bulk delete finished: {} deleted, {} not found", deletedIds.size(), notFound);
+        return BulkDeleteResultDto.builder()
+                .requested(requestedIds.size())
+                .deleted(deletedIds.size())
+                .notFound(notFound)
+                .results(results)
+                .build();
+    }
+
     @Override
     public PhotoDto updatePhotoDescription(Long id, String description) {
         log.info("Updating description for photo with ID: {}", id);
@@ -161,9 +520,12 @@ public class PhotoServiceImpl implements PhotoService {
         Photo photo = photoOpt.get();
         photo.setDescription(description);
         photo = photoRepository.save(photo);
+        photoViewCache.invalidate(List.of(id));
 
         log.info("Successfully updated description for photo with ID: {}", id);
-        return photoMapper.convertToDto(photo);
+        PhotoDto photoDto = photoMapper.convertToDto(photo);
+        eventPublisher.publishEvent(PhotoChangeEvent.updated(photoDto));
+        return photoDto;
     }
 
     @Override
@@ -184,27 +546,167 @@ public class PhotoServiceImpl implements PhotoService {
             throw new PhotoNotFoundException("Photo file not found in storage");
         }
 
-        // Generate new presigned URL
-        String newPresignedUrl = s3Service.generatePresignedUrl(photo.getFileName(), PRESIGNED_URL_DURATION_DAYS);
-        if (newPresignedUrl == null) {
+        // Replace the cached URL with a freshly signed one
+        PresignedUrlCache.SignedUrl signedUrl = presignedUrlCache.refresh(photo.getFileName());
+        if (signedUrl == null) {
             throw new PhotoUploadException("Failed to generate new presigned URL");
         }
 
-        photo.setPresignedUrl(newPresignedUrl);
+        photo.setPresignedUrl(signedUrl.url());
+        photo.setPresignedUrlExpiresAt(signedUrl.expiresAt());
         photo = photoRepository.save(photo);
+        photoViewCache.invalidate(List.of(id));
 
         log.info("Successfully refreshed presigned URL for photo with ID: {}", id);
-        return photoMapper.convertToDto(photo);
+        PhotoDto photoDto = photoMapper.convertToDto(photo);
+        eventPublisher.publishEvent(PhotoChangeEvent.updated(photoDto));
+        return photoDto;
+    }
+
+    /**
+     * Store a validated file (reusing an identical object if one exists) and build its (unsaved) entity;
+     * drops the reference again if signing fails
+     */
+    private Photo storeFile(MultipartFile file, PhotoUploadRequest uploadRequest) {
+        StoredBlob blob = photoBlobService.store(file);
+        long phaseStart = System.nanoTime();
+
+        // Sign once up front so a signing failure still rolls back the upload; this also warms the URL cache
+        PresignedUrlCache.SignedUrl signedUrl = presignedUrlCache.refresh(blob.fileName());
+        if (signedUrl == null) {
+            photoBlobService.release(List.of(blob.contentHash()));
+            throw new PhotoUploadException("Failed to generate presigned URL");
+        }
+        recordPhase("sign", phaseStart);
+
+        return Photo.builder()
+                .fileName(blob.fileName())
+                .contentHash(blob.contentHash())
+                .originalFileName(file.getOriginalFilename())
+                .description(uploadRequest.getDescription())
+                .presignedUrl(signedUrl.url())
+                .presignedUrlExpiresAt(signedUrl.expiresAt())
+                .fileSize(file.getSize())
+                .contentType(file.getContentType())
+                .variantWidths(blob.variantWidths())
+                .tags(uploadRequest.getTags())
+                .location(uploadRequest.getLocation())
+                .category(uploadRequest.getCategory())
+                .build();
+    }
+
+    private long recordPhase(String phase, long startNanos) {
+        long now = System.nanoTime();
+        meterRegistry.timer("photo.upload.phase", "phase", phase).record(now - startNanos, TimeUnit.NANOSECONDS);
+        return now;
     }
 
-    private void validateFile(MultipartFile file) {
+    /**
+     * Remove the originals and variants of photos that own their objects outright, once the row delete has
+     * committed. A rollback then never leaves rows pointing at missing objects; a failed object delete only
+     * leaves an unreferenced object behind, which is logged and counted.
+     * @param ownedPhotos Deleted photos without a content hash
+     */
+    private void deleteOwnedObjectsAfterCommit(List<Photo> ownedPhotos) {
+        if (ownedPhotos.isEmpty()) {
+            return;
+        }
+
+        // Variants ride along in the same DeleteObjects requests
+        List<String> fileNames = new ArrayList<>();
+        for (Photo photo : ownedPhotos) {
+            fileNames.add(photo.getFileName());
+            fileNames.addAll(imageVariantService.variantFileNames(photo.getFileName(), photo.getVariantWidths()));
+        }
+
+        Runnable deleteObjects = () -> {
+            Set<String> deleted = s3Service.deleteFiles(fileNames);
+            fileNames.forEach(presignedUrlCache::evict);
+            List<String> orphaned = fileNames.stream().filter(fileName -> !deleted.contains(fileName)).toList();
+            if (!orphaned.isEmpty()) {
+                meterRegistry.counter("photo.delete.orphaned-objects").increment(orphaned.size());
+                log.warn("Photo rows were deleted but {} objects could not be removed from S3: {}",
+                        orphaned.size(), orphaned);
+            }
+        };
+
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    deleteObjects.run();
+                }
+            });
+        } else {
+            deleteObjects.run();
+        }
+    }
+
+    // No transaction of our own, so a cache hit never borrows a connection; a miss is a single query
+    private PhotoView findCachedView(Long id) {
+        return photoViewCache.get(id, photoRepository::findViewById).orElseThrow(() -> {
+            log.warn("Photo not found with ID: {}", id);
+            return new PhotoNotFoundException("Photo not found with ID: " + id);
+        });
+    }
+
+    // Rows come with one extra beyond the page size, which only signals that another page exists
+    private PhotoPageDto toPage(List<PhotoView> photos, int pageSize) {
+        boolean hasMore = photos.size() > pageSize;
+        if (hasMore) {
+            photos = photos.subList(0, pageSize);
+        }
+
+        String nextCursor = null;
+        if (hasMore) {
+            PhotoView last = photos.get(photos.size() - 1);
+            nextCursor = new PageCursor(last.createdAt(), last.id()).encode();
+        }
+
+        List<PhotoDto> photoDtos = photos.stream()
+                .map(photoMapper::convertToDto)
+                .collect(Collectors.toList());
+
+        return PhotoPageDto.builder()
+                .photos(photoDtos)
+                .size(photoDtos.size())
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .build();
+    }
+
+    private long currentTimeBucket() {
+        return System.currentTimeMillis() / eTagTimeBucket.toMillis();
+    }
+
+    private BatchUploadItemDto failedItem(int index, MultipartFile file, String error) {
+        return BatchUploadItemDto.builder()
+                .index(index)
+                .originalFileName(file != null ? file.getOriginalFilename() : null)
+                .success(false)
+                .error(error)
+                .build();
+    }
+
+    private int resolvePageSize(Integer size) {
+        if (size == null) {
+            return defaultPageSize;
+        }
+        if (size < 1) {
+            throw new IllegalArgumentException("Page size must be at least 1");
+        }
+        return Math.min(size, maxPageSize);
+    }
+
+    @Override
+    public void validateFile(MultipartFile file) {
         if (file == null || file.isEmpty()) {
             throw new PhotoUploadException("File is required");
         }
 
-        if (file.getSize() > MAX_FILE_SIZE) {
+        if (file.getSize() > maxFileSize.toBytes()) {
             throw new PhotoUploadException("File size exceeds maximum allowed size of " +
-                    FileUtils.formatFileSize(MAX_FILE_SIZE));
+                    FileUtils.formatFileSize(maxFileSize.toBytes()));
         }
 
         String contentType = file.getContentType();
@@ -0,0 +1,174 @@
+package com.ibra.simple_full_stack.service.impl;
+
+import com.ibra.simple_full_stack.cache.PresignedUrlCache;
+import com.ibra.simple_full_stack.dto.PhotoUrlRef;
+import com.ibra.simple_full_stack.repository.PhotoRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically re-signs stored presigned URLs that are missing an expiry or close to expiring,
+ * so reads can serve the stored URL instead of signing inline.
+ * Runs on every task; concurrent runs only repeat idempotent writes.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "photo.presigned-url.refresh.enabled", havingValue = "true", matchIfMissing = true)
+public class PresignedUrlRefresher {
+
+    private static final LocalDateTime KEYSET_START = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final String UPDATE_SQL =
+            "UPDATE photos SET presigned_url = ?, presigned_url_expires_at = ? WHERE id = ?";
+
+    private final PhotoRepository photoRepository;
+    private final PresignedUrlCache presignedUrlCache;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Executor refreshExecutor;
+    private final Timer runTimer;
+    private final Counter refreshedUrls;
+    private final Counter failedUrls;
+
+    // Earliest stored expiry as of the last run; null until the first run or while no URL has an expiry
+    private volatile LocalDateTime earliestExpiry;
+    private volatile double lastRunThroughput;
+
+    @Value("${photo.presigned-url.refresh.ahead:1d}")
+    private Duration refreshAhead;
+
+    @Value("${photo.presigned-url.refresh.batch-size:500}")
+    private int batchSize;
+
+    public PresignedUrlRefresher(PhotoRepository photoRepository, PresignedUrlCache presignedUrlCache,
+                                 JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                                 @Qualifier("presignedUrlRefreshExecutor") Executor refreshExecutor,
+                                 MeterRegistry meterRegistry) {
+        this.photoRepository = photoRepository;
+        this.presignedUrlCache = presignedUrlCache;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.refreshExecutor = refreshExecutor;
+        this.runTimer = Timer.builder("photo.presigned-url.refresh.run")
+                .description("Duration of one refresh pass over expiring URLs")
+                .register(meterRegistry);
+        this.refreshedUrls = Counter.builder("photo.presigned-url.refresh.urls")
+                .description("Presigned URLs processed by the refresher")
+                .tag("result", "refreshed")
+                .register(meterRegistry);
+        this.failedUrls = Counter.builder("photo.presigned-url.refresh.urls")
+                .description("Presigned URLs processed by the refresher")
+                .tag("result", "failed")
+                .register(meterRegistry);
+        Gauge.builder("photo.presigned-url.refresh.throughput", this, refresher -> refresher.lastRunThroughput)
+                .description("URLs re-signed per second during the last refresh pass that had work")
+                .baseUnit("photos/s")
+                .register(meterRegistry);
+        Gauge.builder("photo.presigned-url.refresh.lag", this, PresignedUrlRefresher::lagSeconds)
+                .description("How far the earliest stored URL expiry has moved inside the refresh-ahead window; "
+                        + "0 while the refresher keeps up")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${photo.presigned-url.refresh.interval:PT15M}",
+            initialDelayString = "${photo.presigned-url.refresh.initial-delay:PT1M}")
+    public void refreshExpiringUrls() {
+        long startTime = System.currentTimeMillis();
+        int refreshed = 0;
+
+        // Rows written before expiry tracking existed have no expiry yet
+        Long afterId = 0L;
+        List<PhotoUrlRef> batch;
+        do {
+            batch = photoRepository.findUrlsWithoutExpiry(afterId, PageRequest.of(0, batchSize));
+            if (batch.isEmpty()) {
+                break;
+            }
+            refreshed += refreshBatch(batch);
+            afterId = batch.get(batch.size() - 1).id();
+        } while (batch.size() == batchSize);
+
+        LocalDateTime threshold = LocalDateTime.now().plus(refreshAhead);
+        LocalDateTime afterExpiresAt = KEYSET_START;
+        afterId = 0L;
+        do {
+            batch = photoRepository.findUrlsExpiringBefore(threshold, afterExpiresAt, afterId, PageRequest.of(0, batchSize));
+            if (batch.isEmpty()) {
+                break;
+            }
+            refreshed += refreshBatch(batch);
+            PhotoUrlRef last = batch.get(batch.size() - 1);
+            afterExpiresAt = last.presignedUrlExpiresAt();
+            afterId = last.id();
+        } while (batch.size() == batchSize);
+
+        long elapsedMillis = System.currentTimeMillis() - startTime;
+        runTimer.record(elapsedMillis, TimeUnit.MILLISECONDS);
+        earliestExpiry = photoRepository.findEarliestUrlExpiry();
+
+        if (refreshed > 0) {
+            lastRunThroughput = refreshed * 1000.0 / Math.max(1, elapsedMillis);
+            log.info("Refreshed {} presigned URLs in {} ms", refreshed, elapsedMillis);
+        } else {
+            log.debug("No presigned URLs needed refreshing");
+        }
+    }
+
+    private int refreshBatch(List<PhotoUrlRef> batch) {
+        List<CompletableFuture<Object[]>> signings = batch.stream()
+                .map(ref -> CompletableFuture.supplyAsync(() -> sign(ref), refreshExecutor))
+                .toList();
+
+        List<Object[]> updates = signings.stream()
+                .map(CompletableFuture::join)
+                .filter(Objects::nonNull)
+                .toList();
+
+        if (!updates.isEmpty()) {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(UPDATE_SQL, updates));
+        }
+
+        refreshedUrls.increment(updates.size());
+        failedUrls.increment(batch.size() - updates.size());
+        log.debug("Re-signed {} of {} presigned URLs in batch", updates.size(), batch.size());
+        return updates.size();
+    }
+
+    private double lagSeconds() {
+        LocalDateTime earliest = earliestExpiry;
+        if (earliest == null) {
+            return 0;
+        }
+        Duration untilExpiry = Duration.between(LocalDateTime.now(), earliest);
+        return Math.max(0, refreshAhead.minus(untilExpiry).toSeconds());
+    }
+
+    private Object[] sign(PhotoUrlRef ref) {
+        PresignedUrlCache.SignedUrl signedUrl = presignedUrlCache.refresh(ref.fileName());
+        if (signedUrl == null) {
+            log.warn("Failed to re-sign presigned URL for photo with ID: {}", ref.id());
+            return null;
+        }
+        return new Object[]{signedUrl.url(), Timestamp.valueOf(signedUrl.expiresAt()), ref.id()};
+    }
+}
@@ -0,0 +1,216 @@
+package com.ibra.simple_full_stack.service.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Uploads large objects with the S3 multipart API.
+ * Parts are read sequentially from the source stream and uploaded concurrently; memory is
+ * bounded per upload by {@code parallelism} parts and across all uploads by a shared buffer budget.
+ */
+@Slf4j
+@Component
+@Profile("!filesystem")
+public class S3MultipartUploader {
+
+    private static final int MAX_PARTS = 10_000;
+    private static final long MIN_PART_SIZE = 5L * 1024 * 1024;
+    private static final long RETRY_BACKOFF_MILLIS = 200;
+
+    private final S3Client s3Client;
+    private final Executor partUploadExecutor;
+    private final Semaphore bufferedParts;
+    private final long partSize;
+    private final int parallelism;
+    private final int maxPartAttempts;
+
+    public S3MultipartUploader(S3Client s3Client,
+                               @Qualifier("s3PartUploadExecutor") Executor partUploadExecutor,
+                               @Value("${s3.multipart.part-size:8MB}") DataSize partSize,
+                               @Value("${s3.multipart.parallelism:4}") int parallelism,
+                               @Value("${s3.multipart.max-buffered-parts:16}") int maxBufferedParts,
+                               @Value("${s3.multipart.max-part-attempts:3}") int maxPartAttempts) {
+        this.s3Client = s3Client;
+        this.partUploadExecutor = partUploadExecutor;
+        this.partSize = Math.max(partSize.toBytes(), MIN_PART_SIZE);
+        this.parallelism = Math.max(1, Math.min(parallelism, maxBufferedParts));
+        this.bufferedParts = new Semaphore(Math.max(1, maxBufferedParts), true);
+        this.maxPartAttempts = Math.max(1, maxPartAttempts);
+    }
+
+    /**
+     * Upload the stream as a multipart object, aborting the upload if any part fails for good
+     * @param createRequest Bucket, key and object metadata for the new upload
+     * @param inputStream Source of exactly {@code contentLength} bytes
+     * @param contentLength Total object size in bytes
+     */
+    public void upload(CreateMultipartUploadRequest createRequest, InputStream inputStream, long contentLength)
+            throws IOException {
+        String bucket = createRequest.bucket();
+        String key = createRequest.key();
+        long effectivePartSize = Math.max(partSize, (contentLength + MAX_PARTS - 1) / MAX_PARTS);
+
+        String uploadId = s3Client.createMultipartUpload(createRequest).uploadId();
+        log.debug("Started multipart upload {} for {} ({} bytes, part size {})", uploadId, key, contentLength, effectivePartSize);
+
+        Semaphore inFlight = new Semaphore(parallelism);
+        List<CompletableFuture<CompletedPart>> parts = new ArrayList<>();
+
+        try {
+            long remaining = contentLength;
+            int partNumber = 1;
+
+            while (remaining > 0) {
+                failFastIfAnyPartFailed(parts);
+
+                int length = (int) Math.min(effectivePartSize, remaining);
+                inFlight.acquire();
+                try {
+                    bufferedParts.acquire();
+                } catch (InterruptedException e) {
+                    inFlight.release();
+                    throw e;
+                }
+
+                byte[] buffer;
+                try {
+                    buffer = inputStream.readNBytes(length);
+                    if (buffer.length != length) {
+                        throw new EOFException("Stream ended after " + (contentLength - remaining + buffer.length)
+                                + " of " + contentLength + " bytes");
+                    }
+                } catch (IOException e) {
+                    bufferedParts.release();
+                    inFlight.release();
+                    throw e;
+                }
+
+                int number = partNumber;
+                CompletableFuture<CompletedPart> part;
+                try {
+                    part = CompletableFuture.supplyAsync(
+                            () -> uploadPartWithRetry(bucket, key, uploadId, number, buffer), partUploadExecutor);
+                } catch (RuntimeException e) {
+                    bufferedParts.release();
+                    inFlight.release();
+                    throw e;
+                }
+                parts.add(part.whenComplete((completed, error) -> {
+                    bufferedParts.release();
+                    inFlight.release();
+                }));
+
+                remaining -= length;
+                partNumber++;
+            }
+
+            List<CompletedPart> completedParts = new ArrayList<>(parts.size());
+            for (CompletableFuture<CompletedPart> part : parts) {
+                completedParts.add(part.join());
+            }
+            completedParts.sort(Comparator.comparing(CompletedPart::partNumber));
+
+            s3Client.completeMultipartUpload(CompleteMultipartUploadRequest.builder()
+                    .bucket(bucket)
+                    .key(key)
+                    .uploadId(uploadId)
+                    .multipartUpload(CompletedMultipartUpload.builder().parts(completedParts).build())
+                    .build());
+
+            log.info("Completed multipart upload of {} in {} parts", key, completedParts.size());
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            abort(bucket, key, uploadId, parts);
+            throw new IOException("Multipart upload of " + key + " was interrupted", e);
+        } catch (IOException | RuntimeException e) {
+            abort(bucket, key, uploadId, parts);
+            throw e;
+        }
+    }
+
+    private CompletedPart uploadPartWithRetry(String bucket, String key, String uploadId, int partNumber, byte[] buffer) {
+        SdkException lastError = null;
+
+        for (int attempt = 1; attempt <= maxPartAttempts; attempt++) {
+            try {
+                UploadPartResponse response = s3Client.uploadPart(UploadPartRequest.builder()
+                                .bucket(bucket)
+                                .key(key)
+                                .uploadId(uploadId)
+                                .partNumber(partNumber)
+                                .contentLength((long) buffer.length)
+                                .build(),
+                        RequestBody.fromContentProvider(() -> new ByteArrayInputStream(buffer), buffer.length,
+                                "application/octet-stream"));
+
+                return CompletedPart.builder()
+                        .partNumber(partNumber)
+                        .eTag(response.eTag())
+                        .build();
+
+            } catch (SdkException e) {
+                lastError = e;
+                log.warn("Part {} of {} failed on attempt {}/{}: {}", partNumber, key, attempt, maxPartAttempts, e.getMessage());
+                if (attempt < maxPartAttempts) {
+                    sleepBeforeRetry(attempt);
+                }
+            }
+        }
+
+        throw lastError;
+    }
+
+    private void failFastIfAnyPartFailed(List<CompletableFuture<CompletedPart>> parts) {
+        for (CompletableFuture<CompletedPart> part : parts) {
+            if (part.isCompletedExceptionally()) {
+                part.join();
+            }
+        }
+    }
+
+    private void abort(String bucket, String key, String uploadId, List<CompletableFuture<CompletedPart>> parts) {
+        // Let in-flight parts settle first, otherwise they can land after the abort and linger as billed storage
+        CompletableFuture.allOf(parts.toArray(new CompletableFuture[0]))
+                .exceptionally(error -> null)
+                .join();
+
+        try {
+            s3Client.abortMultipartUpload(AbortMultipartUploadRequest.builder()
+                    .bucket(bucket)
+                    .key(key)
+                    .uploadId(uploadId)
+                    .build());
+            log.warn("Aborted multipart upload {} for {}", uploadId, key);
+        } catch (Exception e) {
+            log.error("Failed to abort multipart upload {} for {}: {}", uploadId, key, e.getMessage(), e);
+        }
+    }
+
+    private void sleepBeforeRetry(int attempt) {
+        try {
+            Thread.sleep(RETRY_BACKOFF_MILLIS * attempt);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
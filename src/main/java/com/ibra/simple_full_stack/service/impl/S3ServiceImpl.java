@@ -1,9 +1,14 @@
 package com.ibra.simple_full_stack.service.impl;
 
+import com.ibra.simple_full_stack.cache.S3KeyIndex;
 import com.ibra.simple_full_stack.service.S3Service;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.multipart.MultipartFile;
 import software.amazon.awssdk.core.sync.RequestBody;
 import software.amazon.awssdk.services.s3.S3Client;
@@ -13,47 +18,126 @@ import software.amazon.awssdk.services.s3.presigner.model.GetObjectPresignReques
 import software.amazon.awssdk.services.s3.presigner.model.PresignedGetObjectRequest;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.regex.Pattern;
 
 @Slf4j
 @Service
+@Profile("!filesystem")
 public class S3ServiceImpl implements S3Service {
 
+    // Upper limit of keys in one DeleteObjects request
+    private static final int MAX_KEYS_PER_DELETE = 1000;
+    private static final Pattern UNSAFE_FILENAME_CHARS = Pattern.compile("[^a-zA-Z0-9._-]");
+
     private final S3Client s3Client;
     private final S3Presigner s3Presigner;
+    private final S3MultipartUploader multipartUploader;
+    private final S3KeyIndex keyIndex;
+    private final MeterRegistry meterRegistry;
     
     @Value("${s3.bucket.name}")
     private String bucketName;
 
-    public S3ServiceImpl(S3Client s3Client, S3Presigner s3Presigner) {
+    @Value("${s3.multipart.threshold:16MB}")
+    private DataSize multipartThreshold;
+
+    public S3ServiceImpl(S3Client s3Client, S3Presigner s3Presigner, S3MultipartUploader multipartUploader,
+                         S3KeyIndex keyIndex, MeterRegistry meterRegistry) {
         this.s3Client = s3Client;
         this.s3Presigner = s3Presigner;
+        this.multipartUploader = multipartUploader;
+        this.keyIndex = keyIndex;
+        this.meterRegistry = meterRegistry;
     }
 
     @Override
     public boolean uploadFile(MultipartFile file, String fileName) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String operation = file.getSize() >= multipartThreshold.toBytes() ? "multipart_upload" : "put";
         try {
+            Map<String, String> metadata = Map.of(
+                    "original-filename", file.getOriginalFilename(),
+                    "upload-timestamp", String.valueOf(System.currentTimeMillis())
+            );
+
+            if (file.getSize() >= multipartThreshold.toBytes()) {
+                CreateMultipartUploadRequest createRequest = CreateMultipartUploadRequest.builder()
+                        .bucket(bucketName)
+                        .key(fileName)
+                        .contentType(file.getContentType())
+                        .metadata(metadata)
+                        .build();
+
+                try (InputStream inputStream = file.getInputStream()) {
+                    multipartUploader.upload(createRequest, inputStream, file.getSize());
+                }
+                keyIndex.markPresent(fileName);
+                recordSuccess(sample, operation, file.getSize());
+
+                log.info("Successfully uploaded file {} to S3 bucket {} using multipart upload", fileName, bucketName);
+                return true;
+            }
+
             PutObjectRequest putObjectRequest = PutObjectRequest.builder()
                     .bucket(bucketName)
                     .key(fileName)
                     .contentType(file.getContentType())
                     .contentLength(file.getSize())
-                    .metadata(java.util.Map.of(
-                        "original-filename", file.getOriginalFilename(),
-                        "upload-timestamp", String.valueOf(System.currentTimeMillis())
-                    ))
+                    .metadata(metadata)
                     .build();
 
-            s3Client.putObject(putObjectRequest, RequestBody.fromBytes(file.getBytes()));
+            // Stream straight from the multipart part (spilled to disk by the container) so heap use
+            // per upload stays bounded by the SDK's small read buffer instead of the whole file
+            try (InputStream inputStream = file.getInputStream()) {
+                s3Client.putObject(putObjectRequest, RequestBody.fromInputStream(inputStream, file.getSize()));
+            }
+            keyIndex.markPresent(fileName);
+            recordSuccess(sample, operation, file.getSize());
             
             log.info("Successfully uploaded file {} to S3 bucket {}", fileName, bucketName);
             return true;
             
         } catch (IOException e) {
+            recordError(sample, operation, e);
             log.error("Failed to read file content for upload: {}", fileName, e);
             return false;
         } catch (Exception e) {
+            recordError(sample, operation, e);
+            log.error("Failed to upload file {} to S3: {}", fileName, e.getMessage(), e);
+            return false;
+        }
+    }
+
+    @Override
+    public boolean uploadBytes(byte[] content, String fileName, String contentType) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            PutObjectRequest putObjectRequest = PutObjectRequest.builder()
+                    .bucket(bucketName)
+                    .key(fileName)
+                    .contentType(contentType)
+                    .contentLength((long) content.length)
+                    .build();
+
+            s3Client.putObject(putObjectRequest, RequestBody.fromBytes(content));
+            keyIndex.markPresent(fileName);
+            recordSuccess(sample, "put", content.length);
+
+            log.debug("Uploaded {} bytes to {} in S3 bucket {}", content.length, fileName, bucketName);
+            return true;
+
+        } catch (Exception e) {
+            recordError(sample, "put", e);
             log.error("Failed to upload file {} to S3: {}", fileName, e.getMessage(), e);
             return false;
         }
@@ -61,6 +145,7 @@ public class S3ServiceImpl implements S3Service {
 
     @Override
     public String generatePresignedUrl(String fileName, int durationInDays) {
+        Timer.Sample sample = Timer.start(meterRegistry);
         try {
             GetObjectPresignRequest getObjectPresignRequest = GetObjectPresignRequest.builder()
                     .getObjectRequest(GetObjectRequest.builder()
@@ -72,11 +157,13 @@ public class S3ServiceImpl implements S3Service {
 
             PresignedGetObjectRequest presignedGetObjectRequest = s3Presigner.presignGetObject(getObjectPresignRequest);
             String presignedUrl = presignedGetObjectRequest.url().toString();
+            recordSuccess(sample, "presign", 0);
             
             log.debug("Generated presigned URL for file {} valid for {} days", fileName, durationInDays);
             return presignedUrl;
             
         } catch (Exception e) {
+            recordError(sample, "presign", e);
             log.error("Failed to generate presigned URL for file {}: {}", fileName, e.getMessage(), e);
             return null;
         }
@@ -84,6 +171,7 @@ public class S3ServiceImpl implements S3Service {
 
     @Override
     public boolean deleteFile(String fileName) {
+        Timer.Sample sample = Timer.start(meterRegistry);
         try {
             DeleteObjectRequest deleteObjectRequest = DeleteObjectRequest.builder()
                     .bucket(bucketName)
@@ -91,18 +179,72 @@ public class S3ServiceImpl implements S3Service {
                     .build();
 
             s3Client.deleteObject(deleteObjectRequest);
+            keyIndex.markAbsent(fileName);
+            recordSuccess(sample, "delete", 0);
             
             log.info("Successfully deleted file {} from S3 bucket {}", fileName, bucketName);
             return true;
             
         } catch (Exception e) {
+            recordError(sample, "delete", e);
             log.error("Failed to delete file {} from S3: {}", fileName, e.getMessage(), e);
             return false;
         }
     }
 
+    @Override
+    public Set<String> deleteFiles(Collection<String> fileNames) {
+        Set<String> deleted = new HashSet<>();
+        List<String> keys = new ArrayList<>(new LinkedHashSet<>(fileNames));
+
+        for (int start = 0; start < keys.size(); start += MAX_KEYS_PER_DELETE) {
+            List<String> chunk = keys.subList(start, Math.min(start + MAX_KEYS_PER_DELETE, keys.size()));
+            Timer.Sample sample = Timer.start(meterRegistry);
+            try {
+                DeleteObjectsRequest deleteObjectsRequest = DeleteObjectsRequest.builder()
+                        .bucket(bucketName)
+                        .delete(Delete.builder()
+                                .objects(chunk.stream()
+                                        .map(key -> ObjectIdentifier.builder().key(key).build())
+                                        .toList())
+                                .quiet(true)
+                                .build())
+                        .build();
+
+                // In quiet mode only the failed keys are reported back
+                DeleteObjectsResponse response = s3Client.deleteObjects(deleteObjectsRequest);
+                recordSuccess(sample, "delete_objects", 0);
+                Set<String> failed = new HashSet<>();
+                for (S3Error error : response.errors()) {
+                    failed.add(error.key());
+                    log.warn("Failed to delete file {} from S3: {} {}", error.key(), error.code(), error.message());
+                }
+
+                for (String key : chunk) {
+                    if (!failed.contains(key)) {
+                        deleted.add(key);
+                        keyIndex.markAbsent(key);
+                    }
+                }
+
+            } catch (Exception e) {
+                recordError(sample, "delete_objects", e);
+                log.error("Failed to delete {} files from S3: {}", chunk.size(), e.getMessage(), e);
+            }
+        }
+
+        log.info("Deleted {} of {} files from S3 bucket {}", deleted.size(), keys.size(), bucketName);
+        return deleted;
+    }
+
     @Override
     public boolean doesFileExist(String fileName) {
+        // Positive answers from the local index are authoritative; anything else is confirmed with S3
+        if (keyIndex.contains(fileName)) {
+            return true;
+        }
+
+        Timer.Sample sample = Timer.start(meterRegistry);
         try {
             HeadObjectRequest headObjectRequest = HeadObjectRequest.builder()
                     .bucket(bucketName)
@@ -110,12 +252,16 @@ public class S3ServiceImpl implements S3Service {
                     .build();
 
             s3Client.headObject(headObjectRequest);
+            keyIndex.markPresent(fileName);
+            recordSuccess(sample, "head", 0);
             return true;
             
         } catch (NoSuchKeyException e) {
+            sample.stop(requestTimer("head", "not_found"));
             log.debug("File {} does not exist in S3 bucket {}", fileName, bucketName);
             return false;
         } catch (Exception e) {
+            recordError(sample, "head", e);
             log.error("Error checking if file {} exists in S3: {}", fileName, e.getMessage(), e);
             return false;
         }
@@ -127,12 +273,26 @@ public class S3ServiceImpl implements S3Service {
             return UUID.randomUUID().toString();
         }
         
-        String extension = "";
-        int lastDotIndex = originalFilename.lastIndexOf('.');
-        if (lastDotIndex > 0) {
-            extension = originalFilename.substring(lastDotIndex);
+        return UUID.randomUUID().toString() + "_" + UNSAFE_FILENAME_CHARS.matcher(originalFilename).replaceAll("_");
+    }
+
+    private void recordSuccess(Timer.Sample sample, String operation, long bytes) {
+        sample.stop(requestTimer(operation, "success"));
+        if (bytes > 0) {
+            meterRegistry.counter("s3.bytes.uploaded", "operation", operation).increment(bytes);
         }
-        
-        return UUID.randomUUID().toString() + "_" + originalFilename.replaceAll("[^a-zA-Z0-9._-]", "_");
     }
-}
\ No newline at end of file
+
+    private void recordError(Timer.Sample sample, String operation, Exception e) {
+        sample.stop(requestTimer(operation, "error"));
+        meterRegistry.counter("s3.errors", "operation", operation, "exception", e.getClass().getSimpleName()).increment();
+    }
+
+    private Timer requestTimer(String operation, String outcome) {
+        return Timer.builder("s3.requests")
+                .description("S3 calls by operation and outcome")
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,91 @@
+package com.ibra.simple_full_stack.service.impl;
+
+import com.ibra.simple_full_stack.service.TagService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Fills photo_tags for photos stored before tags were normalized.
+ * Walks photos by id in small batches, each in its own short transaction; the reads take no locks and the
+ * writes only touch photo_tags, so uploads and edits carry on while it runs. Once caught up a run is one
+ * cheap anti-join, so it simply keeps running on its interval.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "photo.tags.backfill.enabled", havingValue = "true", matchIfMissing = true)
+public class TagBackfillRunner {
+
+    private static final String PENDING_SQL =
+            "SELECT p.id, p.tags FROM photos p " +
+            "WHERE p.id > ? AND p.tags IS NOT NULL AND p.tags <> '' " +
+            "AND NOT EXISTS (SELECT 1 FROM photo_tags pt WHERE pt.photo_id = p.id) " +
+            "ORDER BY p.id LIMIT ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TagService tagService;
+
+    @Value("${photo.tags.backfill.batch-size:500}")
+    private int batchSize;
+
+    @Value("${photo.tags.backfill.pause:PT0.1S}")
+    private Duration pauseBetweenBatches;
+
+    public TagBackfillRunner(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                             TagService tagService) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.tagService = tagService;
+    }
+
+    @Scheduled(fixedDelayString = "${photo.tags.backfill.interval:PT1H}",
+            initialDelayString = "${photo.tags.backfill.initial-delay:PT30S}")
+    public void backfill() {
+        long startTime = System.currentTimeMillis();
+        long afterId = 0L;
+        int backfilled = 0;
+        Map<Long, String> batch;
+
+        do {
+            Map<Long, String> rows = new LinkedHashMap<>();
+            jdbcTemplate.query(PENDING_SQL, rs -> {
+                rows.put(rs.getLong("id"), rs.getString("tags"));
+            }, afterId, batchSize);
+            batch = rows;
+            if (batch.isEmpty()) {
+                break;
+            }
+
+            transactionTemplate.executeWithoutResult(status -> tagService.assignTags(rows));
+            backfilled += batch.size();
+            // Rows arrive in id order, so the last key is the keyset position for the next batch
+            for (Long id : batch.keySet()) {
+                afterId = id;
+            }
+        } while (batch.size() == batchSize && pause());
+
+        if (backfilled > 0) {
+            log.info("Backfilled tags for {} photos in {} ms", backfilled, System.currentTimeMillis() - startTime);
+        }
+    }
+
+    private boolean pause() {
+        try {
+            // Leaves room for regular traffic between batches
+            Thread.sleep(pauseBetweenBatches.toMillis());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.ibra.simple_full_stack.service.impl;
+
+import com.ibra.simple_full_stack.service.TagService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCallback;
+import org.springframework.stereotype.Service;
+
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+@Slf4j
+@Service
+public class TagServiceImpl implements TagService {
+
+    private static final int MAX_TAG_LENGTH = 64;
+
+    private static final String INSERT_TAGS_SQL =
+            "INSERT INTO tags (name) SELECT unnest(?) ON CONFLICT (name) DO NOTHING";
+    private static final String LINK_TAGS_SQL =
+            "INSERT INTO photo_tags (photo_id, tag_id) SELECT ?, id FROM tags WHERE name = ANY(?) " +
+            "ON CONFLICT DO NOTHING";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public TagServiceImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public List<String> parseTags(String tags) {
+        if (tags == null || tags.isBlank()) {
+            return List.of();
+        }
+
+        Set<String> names = new LinkedHashSet<>();
+        for (String tag : tags.split(",")) {
+            String name = tag.trim().toLowerCase(Locale.ROOT);
+            if (!name.isEmpty() && name.length() <= MAX_TAG_LENGTH) {
+                names.add(name);
+            }
+        }
+        return new ArrayList<>(names);
+    }
+
+    @Override
+    public void assignTags(Map<Long, String> tagsByPhotoId) {
+        Set<String> allNames = new LinkedHashSet<>();
+        List<Object[]> links = new ArrayList<>();
+        tagsByPhotoId.forEach((photoId, tags) -> {
+            List<String> names = parseTags(tags);
+            if (!names.isEmpty()) {
+                allNames.addAll(names);
+                links.add(new Object[]{photoId, names.toArray(String[]::new)});
+            }
+        });
+        if (links.isEmpty()) {
+            return;
+        }
+
+        // One statement for every new tag, then one batched link statement per photo
+        jdbcTemplate.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement(INSERT_TAGS_SQL);
+            statement.setArray(1, connection.createArrayOf("varchar", allNames.toArray()));
+            return statement;
+        });
+
+        jdbcTemplate.execute(LINK_TAGS_SQL, (PreparedStatementCallback<int[]>) statement -> {
+            for (Object[] link : links) {
+                Array names = statement.getConnection().createArrayOf("varchar", (Object[]) link[1]);
+                statement.setLong(1, (Long) link[0]);
+                statement.setArray(2, names);
+                statement.addBatch();
+            }
+            return statement.executeBatch();
+        });
+
+        log.debug("Linked {} photos to {} distinct tags", links.size(), allNames.size());
+    }
+}
@@ -0,0 +1,259 @@
+package com.ibra.simple_full_stack.service.impl;
+
+import com.ibra.simple_full_stack.dto.PhotoDto;
+import com.ibra.simple_full_stack.dto.PhotoUploadRequest;
+import com.ibra.simple_full_stack.dto.UploadJobDto;
+import com.ibra.simple_full_stack.dto.UploadJobStatus;
+import com.ibra.simple_full_stack.exception.PhotoNotFoundException;
+import com.ibra.simple_full_stack.exception.PhotoUploadException;
+import com.ibra.simple_full_stack.exception.UploadJobNotFoundException;
+import com.ibra.simple_full_stack.exception.UploadQueueFullException;
+import com.ibra.simple_full_stack.service.PhotoService;
+import com.ibra.simple_full_stack.service.UploadJobService;
+import com.ibra.simple_full_stack.util.SpooledMultipartFile;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Runs uploads in the background on the task that accepted them. Job state lives in the upload_jobs
+ * table, so a status request can be answered by any task behind the load balancer.
+ */
+@Slf4j
+@Service
+public class UploadJobServiceImpl implements UploadJobService {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO upload_jobs (job_id, status, original_file_name, file_size, queued_at, heartbeat_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String START_SQL =
+            "UPDATE upload_jobs SET status = ?, started_at = ?, heartbeat_at = ? WHERE job_id = ?";
+    private static final String HEARTBEAT_SQL =
+            "UPDATE upload_jobs SET heartbeat_at = ? WHERE job_id = ? AND completed_at IS NULL";
+    private static final String COMPLETE_SQL =
+            "UPDATE upload_jobs SET status = ?, completed_at = ?, photo_id = ?, files_done = files_total WHERE job_id = ?";
+    private static final String FAIL_SQL =
+            "UPDATE upload_jobs SET status = ?, completed_at = ?, error = ? WHERE job_id = ?";
+    private static final String SELECT_SQL =
+            "SELECT job_id, status, original_file_name, file_size, files_total, files_done, photo_id, error, " +
+            "queued_at, started_at, completed_at " +
+            "FROM upload_jobs WHERE job_id = ?";
+    private static final String DELETE_EXPIRED_SQL =
+            "DELETE FROM upload_jobs WHERE completed_at < ?";
+    private static final String FAIL_ABANDONED_SQL =
+            "UPDATE upload_jobs SET status = ?, completed_at = ?, error = ? WHERE completed_at IS NULL AND heartbeat_at < ?";
+
+    private static final RowMapper<JobRow> JOB_ROW_MAPPER = (rs, rowNum) -> new JobRow(
+            UploadJobDto.builder()
+                    .jobId(rs.getString("job_id"))
+                    .status(UploadJobStatus.valueOf(rs.getString("status")))
+                    .originalFileName(rs.getString("original_file_name"))
+                    .fileSize(rs.getObject("file_size", Long.class))
+                    .filesTotal(rs.getInt("files_total"))
+                    .filesDone(rs.getInt("files_done"))
+                    .queuedAt(rs.getObject("queued_at", LocalDateTime.class))
+                    .startedAt(rs.getObject("started_at", LocalDateTime.class))
+                    .completedAt(rs.getObject("completed_at", LocalDateTime.class))
+                    .error(rs.getString("error"))
+                    .build(),
+            rs.getObject("photo_id", Long.class));
+
+    private final PhotoService photoService;
+    private final TaskExecutor uploadJobExecutor;
+    private final JdbcTemplate jdbcTemplate;
+    // One slot per worker and queue entry, taken before the upload is spooled so a full queue costs no disk I/O
+    private final Semaphore slots;
+    // Jobs this task has accepted and not yet finished, queued or running; their heartbeat keeps them off the sweep
+    private final Set<String> openJobs = ConcurrentHashMap.newKeySet();
+
+    @Value("${photo.upload.async.spool-dir:${java.io.tmpdir}/photo-upload-spool}")
+    private Path spoolDirectory;
+
+    @Value("${photo.upload.async.job-retention:PT1H}")
+    private Duration jobRetention;
+
+    @Value("${photo.upload.async.stale-after:PT5M}")
+    private Duration staleAfter;
+
+    public UploadJobServiceImpl(PhotoService photoService,
+                                @Qualifier("uploadJobExecutor") TaskExecutor uploadJobExecutor,
+                                JdbcTemplate jdbcTemplate,
+                                @Value("${photo.upload.async.workers:4}") int workers,
+                                @Value("${photo.upload.async.queue-capacity:100}") int queueCapacity) {
+        this.photoService = photoService;
+        this.uploadJobExecutor = uploadJobExecutor;
+        this.jdbcTemplate = jdbcTemplate;
+        this.slots = new Semaphore(workers + queueCapacity);
+    }
+
+    @Override
+    public UploadJobDto submit(MultipartFile file, PhotoUploadRequest uploadRequest) {
+        // Reject bad files while the client is still waiting for a response
+        photoService.validateFile(file);
+
+        if (!slots.tryAcquire()) {
+            log.warn("Upload queue is full, rejecting upload of {}", file.getOriginalFilename());
+            throw new UploadQueueFullException("Upload queue is full, please retry later");
+        }
+
+        String jobId = UUID.randomUUID().toString();
+        SpooledMultipartFile spooledFile;
+        try {
+            spooledFile = spool(file, jobId);
+        } catch (RuntimeException e) {
+            slots.release();
+            throw e;
+        }
+
+        UploadJobDto job = UploadJobDto.builder()
+                .jobId(jobId)
+                .status(UploadJobStatus.QUEUED)
+                .originalFileName(file.getOriginalFilename())
+                .fileSize(file.getSize())
+                .filesTotal(1)
+                .filesDone(0)
+                .queuedAt(LocalDateTime.now())
+                .build();
+
+        try {
+            jdbcTemplate.update(INSERT_SQL, jobId, job.getStatus().name(), job.getOriginalFileName(),
+                    job.getFileSize(), job.getQueuedAt(), job.getQueuedAt());
+            openJobs.add(jobId);
+            uploadJobExecutor.execute(() -> runJob(jobId, spooledFile, uploadRequest));
+        } catch (TaskRejectedException e) {
+            jdbcTemplate.update("DELETE FROM upload_jobs WHERE job_id = ?", jobId);
+            releaseJob(jobId, spooledFile);
+            log.warn("Upload queue is full, rejecting upload of {}", file.getOriginalFilename());
+            throw new UploadQueueFullException("Upload queue is full, please retry later", e);
+        } catch (RuntimeException e) {
+            releaseJob(jobId, spooledFile);
+            throw e;
+        }
+
+        log.info("Queued upload job {} for file: {}", jobId, file.getOriginalFilename());
+        return job;
+    }
+
+    @Override
+    public UploadJobDto getJob(String jobId) {
+        List<JobRow> rows = jdbcTemplate.query(SELECT_SQL, JOB_ROW_MAPPER, jobId);
+        if (rows.isEmpty()) {
+            throw new UploadJobNotFoundException("Upload job not found with ID: " + jobId);
+        }
+
+        JobRow row = rows.get(0);
+        UploadJobDto job = row.job();
+        if (row.photoId() != null) {
+            try {
+                job.setPhoto(photoService.getPhotoById(row.photoId()));
+            } catch (PhotoNotFoundException e) {
+                log.debug("Photo {} of upload job {} has since been deleted", row.photoId(), jobId);
+            }
+        }
+        return job;
+    }
+
+    /**
+     * Mark every job this task still holds, waiting for a slot or running, as alive
+     */
+    @Scheduled(fixedDelayString = "${photo.upload.async.heartbeat-interval:PT30S}")
+    public void heartbeat() {
+        if (openJobs.isEmpty()) {
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> batch = openJobs.stream()
+                .map(jobId -> new Object[]{now, jobId})
+                .toList();
+        jdbcTemplate.batchUpdate(HEARTBEAT_SQL, batch);
+    }
+
+    @Scheduled(fixedDelayString = "${photo.upload.async.cleanup-interval:PT5M}")
+    public void removeExpiredJobs() {
+        // Our own jobs are alive however long they have waited, even if a heartbeat was delayed
+        heartbeat();
+
+        LocalDateTime now = LocalDateTime.now();
+        // Open jobs whose heartbeat has gone quiet lost the task that was running them
+        int abandoned = jdbcTemplate.update(FAIL_ABANDONED_SQL, UploadJobStatus.FAILED.name(), now,
+                "The task running this upload stopped before it finished", now.minus(staleAfter));
+        int removed = jdbcTemplate.update(DELETE_EXPIRED_SQL, now.minus(jobRetention));
+        if (abandoned > 0 || removed > 0) {
+            log.info("Marked {} abandoned upload jobs as failed and removed {} expired jobs", abandoned, removed);
+        }
+    }
+
+    private void runJob(String jobId, SpooledMultipartFile spooledFile, PhotoUploadRequest uploadRequest) {
+        try {
+            LocalDateTime startedAt = LocalDateTime.now();
+            jdbcTemplate.update(START_SQL, UploadJobStatus.PROCESSING.name(), startedAt, startedAt, jobId);
+            PhotoDto photo = photoService.uploadPhoto(spooledFile, uploadRequest);
+
+            jdbcTemplate.update(COMPLETE_SQL, UploadJobStatus.COMPLETED.name(), LocalDateTime.now(), photo.getId(), jobId);
+            log.info("Upload job {} completed with photo ID: {}", jobId, photo.getId());
+
+        } catch (Exception e) {
+            try {
+                jdbcTemplate.update(FAIL_SQL, UploadJobStatus.FAILED.name(), LocalDateTime.now(), e.getMessage(), jobId);
+            } catch (Exception statusError) {
+                log.error("Failed to record failure of upload job {}: {}", jobId, statusError.getMessage());
+            }
+            log.error("Upload job {} failed: {}", jobId, e.getMessage(), e);
+
+        } finally {
+            releaseJob(jobId, spooledFile);
+        }
+    }
+
+    private void releaseJob(String jobId, SpooledMultipartFile spooledFile) {
+        openJobs.remove(jobId);
+        deleteSpoolFile(spooledFile);
+        slots.release();
+    }
+
+    private SpooledMultipartFile spool(MultipartFile file, String jobId) {
+        try {
+            Files.createDirectories(spoolDirectory);
+            Path spoolPath = spoolDirectory.resolve(jobId);
+            // The container deletes its own copy when the request ends, so keep one the job owns
+            file.transferTo(spoolPath);
+
+            return new SpooledMultipartFile(spoolPath, file.getName(), file.getOriginalFilename(),
+                    file.getContentType(), file.getSize());
+
+        } catch (IOException e) {
+            log.error("Failed to spool upload {}: {}", file.getOriginalFilename(), e.getMessage(), e);
+            throw new PhotoUploadException("Failed to accept upload: " + e.getMessage(), e);
+        }
+    }
+
+    private record JobRow(UploadJobDto job, Long photoId) {
+    }
+
+    private void deleteSpoolFile(SpooledMultipartFile spooledFile) {
+        try {
+            Files.deleteIfExists(spooledFile.getPath());
+        } catch (IOException e) {
+            log.warn("Failed to delete spool file {}: {}", spooledFile.getPath(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.ibra.simple_full_stack.util;
+
+import org.w3c.dom.Node;
+
+import javax.imageio.metadata.IIOMetadata;
+import javax.imageio.metadata.IIOMetadataNode;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * EXIF Orientation (tag 0x0112) of JPEG images, read from the APP1 segment the JDK reader already exposes,
+ * and the transform that turns the stored pixels into the image as viewers display it.
+ */
+public final class ExifOrientation {
+
+    public static final int NORMAL = 1;
+
+    private static final String JPEG_METADATA_FORMAT = "javax_imageio_jpeg_image_1.0";
+    private static final int APP1_MARKER = 0xE1;
+    private static final byte[] EXIF_HEADER = "Exif\0\0".getBytes(StandardCharsets.US_ASCII);
+    private static final int ORIENTATION_TAG = 0x0112;
+
+    private ExifOrientation() {
+    }
+
+    /**
+     * Read the orientation from JPEG image metadata
+     * @param metadata Metadata of the image, read with metadata enabled
+     * @return Orientation 1-8, or NORMAL when there is no EXIF data or it cannot be parsed
+     */
+    public static int read(IIOMetadata metadata) {
+        if (metadata == null || !JPEG_METADATA_FORMAT.equals(metadata.getNativeMetadataFormatName())) {
+            return NORMAL;
+        }
+
+        Node markerSequence = ((IIOMetadataNode) metadata.getAsTree(JPEG_METADATA_FORMAT))
+                .getElementsByTagName("markerSequence").item(0);
+        for (Node marker = markerSequence == null ? null : markerSequence.getFirstChild();
+             marker != null; marker = marker.getNextSibling()) {
+            if ("unknown".equals(marker.getNodeName())
+                    && marker.getAttributes().getNamedItem("MarkerTag") != null
+                    && Integer.parseInt(marker.getAttributes().getNamedItem("MarkerTag").getNodeValue()) == APP1_MARKER
+                    && ((IIOMetadataNode) marker).getUserObject() instanceof byte[] segment) {
+                int orientation = fromApp1(segment);
+                if (orientation != NORMAL) {
+                    return orientation;
+                }
+            }
+        }
+        return NORMAL;
+    }
+
+    /**
+     * Parse the orientation out of an APP1 segment body ("Exif\0\0" followed by a TIFF structure)
+     * @param segment Segment bytes after the length field
+     * @return Orientation 1-8, or NORMAL when absent or malformed
+     */
+    static int fromApp1(byte[] segment) {
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(segment);
+            for (byte expected : EXIF_HEADER) {
+                if (buffer.get() != expected) {
+                    return NORMAL;
+                }
+            }
+
+            // Offsets inside the TIFF structure count from its byte order mark
+            ByteBuffer tiff = buffer.slice();
+            short byteOrder = tiff.getShort(0);
+            if (byteOrder == 0x4949) {
+                tiff.order(ByteOrder.LITTLE_ENDIAN);
+            } else if (byteOrder != 0x4D4D) {
+                return NORMAL;
+            }
+
+            int ifd0 = tiff.getInt(4);
+            int entries = Short.toUnsignedInt(tiff.getShort(ifd0));
+            for (int i = 0; i < entries; i++) {
+                int entry = ifd0 + 2 + i * 12;
+                if (Short.toUnsignedInt(tiff.getShort(entry)) == ORIENTATION_TAG) {
+                    int orientation = Short.toUnsignedInt(tiff.getShort(entry + 8));
+                    return orientation >= 1 && orientation <= 8 ? orientation : NORMAL;
+                }
+            }
+        } catch (RuntimeException e) {
+            // Truncated or inconsistent EXIF is common enough in the wild; show the pixels as stored
+        }
+        return NORMAL;
+    }
+
+    /**
+     * Whether the orientation swaps width and height (the 90 and 270 degree cases)
+     */
+    public static boolean swapsAxes(int orientation) {
+        return orientation >= 5 && orientation <= 8;
+    }
+
+    /**
+     * Redraw the stored pixels the way the orientation says they should be displayed
+     * @param image Decoded image as stored
+     * @param orientation EXIF orientation 1-8
+     * @return The upright image, or the same image for NORMAL
+     */
+    public static BufferedImage apply(BufferedImage image, int orientation) {
+        if (orientation == NORMAL || orientation < 1 || orientation > 8) {
+            return image;
+        }
+
+        int w = image.getWidth();
+        int h = image.getHeight();
+        // Each case maps a stored pixel (x, y) to where a viewer shows it
+        AffineTransform transform = switch (orientation) {
+            case 2 -> new AffineTransform(-1, 0, 0, 1, w, 0);   // mirrored left to right
+            case 3 -> new AffineTransform(-1, 0, 0, -1, w, h);  // rotated 180
+            case 4 -> new AffineTransform(1, 0, 0, -1, 0, h);   // mirrored top to bottom
+            case 5 -> new AffineTransform(0, 1, 1, 0, 0, 0);    // transposed
+            case 6 -> new AffineTransform(0, 1, -1, 0, h, 0);   // needs 90 clockwise
+            case 7 -> new AffineTransform(0, -1, -1, 0, h, w);  // transversed
+            default -> new AffineTransform(0, -1, 1, 0, 0, w);  // 8: needs 90 counter-clockwise
+        };
+
+        BufferedImage target = new BufferedImage(swapsAxes(orientation) ? h : w, swapsAxes(orientation) ? w : h,
+                image.getColorModel().hasAlpha() ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
+            graphics.drawImage(image, transform, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+}
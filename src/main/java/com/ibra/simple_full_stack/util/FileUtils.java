@@ -1,10 +1,14 @@
 package com.ibra.simple_full_stack.util;
 
-import java.text.DecimalFormat;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.regex.Pattern;
 
 public class FileUtils {
 
-    private static final DecimalFormat DECIMAL_FORMAT = new DecimalFormat("#.##");
+    private static final Pattern VALID_IMAGE_TYPE = Pattern.compile("image/(jpeg|jpg|png|gif|webp)");
+    private static final Pattern UNSAFE_FILENAME_CHARS = Pattern.compile("[^a-zA-Z0-9._-]");
+    private static final Pattern REPEATED_UNDERSCORES = Pattern.compile("_{2,}");
     private static final String[] SIZE_UNITS = {"B", "KB", "MB", "GB", "TB"};
 
     /**
@@ -25,7 +29,14 @@ public class FileUtils {
             unitIndex++;
         }
 
-        return DECIMAL_FORMAT.format(size) + " " + SIZE_UNITS[unitIndex];
+        // Rounds the exact binary value half-even to two places as DecimalFormat("#.##") does, so 1.015 gives
+        // "1.01"; BigDecimal.valueOf would round its shortest decimal string instead. Always uses a dot where
+        // DecimalFormat followed the default locale.
+        String formatted = new BigDecimal(size)
+                .setScale(2, RoundingMode.HALF_EVEN)
+                .stripTrailingZeros()
+                .toPlainString();
+        return formatted + " " + SIZE_UNITS[unitIndex];
     }
 
     /**
@@ -38,7 +49,7 @@ public class FileUtils {
             return false;
         }
         
-        return contentType.toLowerCase().matches("image/(jpeg|jpg|png|gif|webp)");
+        return VALID_IMAGE_TYPE.matcher(contentType.toLowerCase()).matches();
     }
 
     /**
@@ -69,8 +80,7 @@ public class FileUtils {
             return "unnamed_file";
         }
         
-        return filename.trim()
-                .replaceAll("[^a-zA-Z0-9._-]", "_")
-                .replaceAll("_{2,}", "_"); // Replace multiple underscores with single
+        String sanitized = UNSAFE_FILENAME_CHARS.matcher(filename.trim()).replaceAll("_");
+        return REPEATED_UNDERSCORES.matcher(sanitized).replaceAll("_"); // Replace multiple underscores with single
     }
 }
\ No newline at end of file
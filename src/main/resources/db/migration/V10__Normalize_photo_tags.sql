@@ -0,0 +1,16 @@
+-- Normalized tags; photos.tags stays as the submitted text, photo_tags is what filtering runs on
+CREATE TABLE IF NOT EXISTS tags (
+    id BIGSERIAL PRIMARY KEY,
+    name VARCHAR(64) NOT NULL UNIQUE
+);
+
+CREATE TABLE IF NOT EXISTS photo_tags (
+    photo_id BIGINT NOT NULL REFERENCES photos (id) ON DELETE CASCADE,
+    tag_id BIGINT NOT NULL REFERENCES tags (id),
+    PRIMARY KEY (photo_id, tag_id)
+);
+
+-- Tag-first lookups for ?tag= filtering; the primary key already covers photo-first access and cascades
+CREATE INDEX IF NOT EXISTS idx_photo_tags_tag_photo ON photo_tags (tag_id, photo_id);
+
+-- Existing rows are backfilled in batches by TagBackfillRunner rather than here, so photos is never locked
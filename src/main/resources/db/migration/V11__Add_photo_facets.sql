@@ -0,0 +1,30 @@
+-- Per-value photo counts for the gallery sidebar, kept current by the same transactions that change photos
+CREATE TABLE IF NOT EXISTS photo_facets (
+    facet VARCHAR(16) NOT NULL,
+    value VARCHAR(255) NOT NULL,
+    photo_count BIGINT NOT NULL,
+    PRIMARY KEY (facet, value)
+);
+
+-- One-off seed from existing rows; tags are split the same way the application normalizes them
+INSERT INTO photo_facets (facet, value, photo_count)
+SELECT 'category', category, COUNT(*) FROM photos
+WHERE category IS NOT NULL AND btrim(category) <> ''
+GROUP BY category
+ON CONFLICT DO NOTHING;
+
+INSERT INTO photo_facets (facet, value, photo_count)
+SELECT 'location', location, COUNT(*) FROM photos
+WHERE location IS NOT NULL AND btrim(location) <> ''
+GROUP BY location
+ON CONFLICT DO NOTHING;
+
+INSERT INTO photo_facets (facet, value, photo_count)
+SELECT 'tag', tag, COUNT(*) FROM (
+    SELECT DISTINCT p.id, btrim(t) AS tag
+    FROM photos p, regexp_split_to_table(lower(p.tags), ',') AS t
+    WHERE p.tags IS NOT NULL
+) photo_tag_names
+WHERE tag <> '' AND length(tag) <= 64
+GROUP BY tag
+ON CONFLICT DO NOTHING;
@@ -0,0 +1,15 @@
+-- Asynchronous upload jobs, shared so any task behind the load balancer can report a job's status
+CREATE TABLE IF NOT EXISTS upload_jobs (
+    job_id VARCHAR(36) PRIMARY KEY,
+    status VARCHAR(16) NOT NULL,
+    original_file_name VARCHAR(255),
+    file_size BIGINT,
+    photo_id BIGINT,
+    error TEXT,
+    queued_at TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    started_at TIMESTAMP WITHOUT TIME ZONE,
+    completed_at TIMESTAMP WITHOUT TIME ZONE
+);
+
+CREATE INDEX IF NOT EXISTS idx_upload_jobs_completed_at ON upload_jobs (completed_at);
+CREATE INDEX IF NOT EXISTS idx_upload_jobs_queued_at ON upload_jobs (queued_at) WHERE completed_at IS NULL;
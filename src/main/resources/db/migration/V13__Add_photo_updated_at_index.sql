@@ -0,0 +1,2 @@
+-- Lets the list fingerprint read MAX(updated_at) from the end of an index instead of scanning photos
+CREATE INDEX IF NOT EXISTS idx_photo_updated_at ON photos (updated_at);
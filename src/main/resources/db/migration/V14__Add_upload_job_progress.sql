@@ -0,0 +1,10 @@
+-- Progress for the status endpoint, and a heartbeat so only jobs whose task has stopped get swept
+ALTER TABLE upload_jobs ADD COLUMN IF NOT EXISTS files_total INTEGER NOT NULL DEFAULT 1;
+ALTER TABLE upload_jobs ADD COLUMN IF NOT EXISTS files_done INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE upload_jobs ADD COLUMN IF NOT EXISTS heartbeat_at TIMESTAMP WITHOUT TIME ZONE;
+
+UPDATE upload_jobs SET heartbeat_at = COALESCE(started_at, queued_at) WHERE heartbeat_at IS NULL;
+ALTER TABLE upload_jobs ALTER COLUMN heartbeat_at SET NOT NULL;
+
+DROP INDEX IF EXISTS idx_upload_jobs_queued_at;
+CREATE INDEX IF NOT EXISTS idx_upload_jobs_heartbeat_at ON upload_jobs (heartbeat_at) WHERE completed_at IS NULL;
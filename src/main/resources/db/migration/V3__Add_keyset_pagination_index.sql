@@ -0,0 +1,3 @@
+-- Keyset pagination orders by (created_at, id); widen the existing index so the tie-breaker is covered too
+DROP INDEX IF EXISTS idx_photo_created_at;
+CREATE INDEX idx_photo_created_at ON photos (created_at, id);
@@ -0,0 +1,2 @@
+-- Presigned URLs are now signed at read time; the column is kept (nullable) so older tasks keep working during a rolling deploy
+ALTER TABLE photos ALTER COLUMN presigned_url DROP NOT NULL;
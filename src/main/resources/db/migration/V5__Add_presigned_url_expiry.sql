@@ -0,0 +1,4 @@
+-- Lets the background refresher find near-expiry URLs with an index range scan
+ALTER TABLE photos ADD COLUMN IF NOT EXISTS presigned_url_expires_at TIMESTAMP WITHOUT TIME ZONE;
+
+CREATE INDEX IF NOT EXISTS idx_photo_presigned_url_expires_at ON photos (presigned_url_expires_at, id);
@@ -0,0 +1,3 @@
+-- Hibernate allocates photo ids in blocks of 50 (pooled optimizer) so inserts can be JDBC-batched;
+-- the sequence must step by the same allocation size
+ALTER SEQUENCE photos_id_seq INCREMENT BY 50;
@@ -0,0 +1,2 @@
+-- Comma-separated widths of the downscaled variants stored next to the original (e.g. '200,800')
+ALTER TABLE photos ADD COLUMN IF NOT EXISTS variant_widths VARCHAR(64);
@@ -0,0 +1,15 @@
+-- One row per distinct S3 object, shared by every photo with the same content hash
+CREATE TABLE IF NOT EXISTS photo_blobs (
+    content_hash VARCHAR(64) PRIMARY KEY,
+    file_name VARCHAR(255) NOT NULL UNIQUE,
+    variant_widths VARCHAR(64),
+    ref_count INTEGER NOT NULL,
+    created_at TIMESTAMP WITHOUT TIME ZONE NOT NULL DEFAULT now()
+);
+
+-- Photos uploaded before this migration keep a null hash and own their object outright
+ALTER TABLE photos ADD COLUMN IF NOT EXISTS content_hash VARCHAR(64);
+CREATE INDEX IF NOT EXISTS idx_photo_content_hash ON photos (content_hash);
+
+-- Several photos may now point at the same object
+ALTER TABLE photos DROP CONSTRAINT IF EXISTS photos_file_name_key;
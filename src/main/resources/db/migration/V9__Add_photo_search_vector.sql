@@ -0,0 +1,9 @@
+-- Weighted full-text document maintained by Postgres itself: description ranks highest, then tags/category, then location
+ALTER TABLE photos ADD COLUMN IF NOT EXISTS search_vector tsvector GENERATED ALWAYS AS (
+    setweight(to_tsvector('english', coalesce(description, '')), 'A') ||
+    setweight(to_tsvector('english', coalesce(tags, '')), 'B') ||
+    setweight(to_tsvector('english', coalesce(category, '')), 'B') ||
+    setweight(to_tsvector('english', coalesce(location, '')), 'C')
+) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_photo_search_vector ON photos USING GIN (search_vector);
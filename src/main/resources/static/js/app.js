@@ -6,13 +6,47 @@ const API_BASE_URL = '/api/photos';
 // Global variables
 let allPhotos = [];
 let filteredPhotos = [];
+let photoEvents = null;
+let photosEtag = null;
 
 // Initialize the app
 document.addEventListener('DOMContentLoaded', function() {
     setupEventListeners();
     loadPhotos();
+    connectPhotoEvents();
 });
 
+// Subscribe to gallery changes; EventSource reconnects and resumes from the last event ID by itself
+function connectPhotoEvents() {
+    if (!window.EventSource) {
+        return;
+    }
+
+    photoEvents = new EventSource(`${API_BASE_URL}/events`);
+    ['ADDED', 'UPDATED', 'DELETED'].forEach(type => {
+        photoEvents.addEventListener(type, event => applyPhotoChange(JSON.parse(event.data)));
+    });
+    // The server no longer has the events we missed
+    photoEvents.addEventListener('RESYNC', () => loadPhotos());
+}
+
+// Apply one pushed change to the local list instead of re-fetching everything
+function applyPhotoChange(change) {
+    const index = allPhotos.findIndex(photo => photo.id === change.photoId);
+
+    if (change.type === 'DELETED') {
+        if (index >= 0) {
+            allPhotos.splice(index, 1);
+        }
+    } else if (index >= 0) {
+        allPhotos[index] = change.photo;
+    } else {
+        allPhotos.unshift(change.photo);
+    }
+
+    handleSearch({ target: document.getElementById('searchInput') });
+}
+
 // Setup event listeners
 function setupEventListeners() {
     // Search functionality
@@ -58,6 +92,7 @@ async function loadPhotos() {
             throw new Error(`HTTP error! status: ${response.status}`);
         }
 
+        photosEtag = response.headers.get('ETag');
         allPhotos = await response.json();
         filteredPhotos = [...allPhotos];
         renderPhotos();
@@ -69,6 +104,27 @@ async function loadPhotos() {
     }
 }
 
+// Quietly pick up changes the stream cannot see, such as ones committed on another server; an unchanged
+// list is answered with a bodyless 304
+async function refreshPhotosIfChanged() {
+    try {
+        const response = await fetch(API_BASE_URL, {
+            headers: photosEtag ? { 'If-None-Match': photosEtag } : {}
+        });
+
+        if (response.status === 304 || !response.ok) {
+            return;
+        }
+
+        photosEtag = response.headers.get('ETag');
+        allPhotos = await response.json();
+        handleSearch({ target: document.getElementById('searchInput') });
+
+    } catch (error) {
+        console.error('Error refreshing photos:', error);
+    }
+}
+
 // Render photos in the gallery
 function renderPhotos() {
     const container = document.getElementById('galleryContainer');
@@ -85,7 +141,10 @@ function renderPhotos() {
     container.innerHTML = filteredPhotos.map(photo => `
                 <div class="photo-card fade-in">
                     <img class="photo-image"
-                         src="${photo.presignedUrl}"
+                         src="${photo.thumbnailUrl || photo.presignedUrl}"
+                         srcset="${buildSrcset(photo)}"
+                         sizes="(max-width: 600px) 100vw, 300px"
+                         loading="lazy"
                          alt="${photo.description}"
                          onclick="openPhotoModal(${photo.id})"
                          onerror="handleImageError(this)">
@@ -108,22 +167,55 @@ function renderPhotos() {
             `).join('');
 }
 
-// Handle search
+// Build a srcset from the downscaled variants so the grid never downloads the original
+function buildSrcset(photo) {
+    const variants = Object.entries(photo.variantUrls || {})
+        .map(([width, url]) => `${url} ${width}w`);
+    return variants.join(', ');
+}
+
+// Handle search; matching runs server-side against the full-text index
+let searchTimer = null;
+let searchSequence = 0;
+
 function handleSearch(event) {
-    const query = event.target.value.toLowerCase().trim();
+    const query = event.target.value.trim();
 
+    clearTimeout(searchTimer);
     if (!query) {
+        searchSequence++;
         filteredPhotos = [...allPhotos];
-    } else {
-        filteredPhotos = allPhotos.filter(photo =>
-            photo.description.toLowerCase().includes(query) ||
-            (photo.tags && photo.tags.toLowerCase().includes(query)) ||
-            (photo.location && photo.location.toLowerCase().includes(query)) ||
-            (photo.category && photo.category.toLowerCase().includes(query))
-        );
+        renderPhotos();
+        return;
     }
 
-    renderPhotos();
+    // Wait for a pause in typing so each keystroke is not its own request
+    searchTimer = setTimeout(() => searchPhotos(query), 250);
+}
+
+async function searchPhotos(query) {
+    const sequence = ++searchSequence;
+
+    try {
+        const response = await fetch(`${API_BASE_URL}/search?q=${encodeURIComponent(query)}&size=100`);
+
+        if (!response.ok) {
+            throw new Error(`HTTP error! status: ${response.status}`);
+        }
+
+        const result = await response.json();
+        // Ignore answers to queries the user has already typed past
+        if (sequence !== searchSequence) {
+            return;
+        }
+
+        filteredPhotos = result.photos;
+        renderPhotos();
+
+    } catch (error) {
+        console.error('Error searching photos:', error);
+        showNotification('Search failed. Please try again.', 'error');
+    }
 }
 
 // File handling
@@ -483,16 +575,25 @@ window.addEventListener('popstate', function(e) {
     closePhotoModal();
 });
 
-// Auto-refresh gallery every 5 minutes
+// The stream only carries changes made on the server it is connected to, so keep the old 5 minute conditional
+// poll; poll every minute only while the stream is down
+const CONNECTED_POLL_INTERVAL = 5 * 60 * 1000;
+const DISCONNECTED_POLL_INTERVAL = 60 * 1000;
+let lastPolledAt = Date.now();
+
 setInterval(() => {
-    if (document.visibilityState === 'visible') {
-        loadPhotos();
+    const connected = photoEvents && photoEvents.readyState === EventSource.OPEN;
+    const interval = connected ? CONNECTED_POLL_INTERVAL : DISCONNECTED_POLL_INTERVAL;
+    if (document.visibilityState === 'visible' && Date.now() - lastPolledAt >= interval) {
+        lastPolledAt = Date.now();
+        refreshPhotosIfChanged();
     }
-}, 5 * 60 * 1000);
+}, DISCONNECTED_POLL_INTERVAL);
 
-// Refresh when tab becomes visible
+// Catch up when the tab becomes visible again
 document.addEventListener('visibilitychange', function() {
     if (document.visibilityState === 'visible') {
-        loadPhotos();
+        lastPolledAt = Date.now();
+        refreshPhotosIfChanged();
     }
 });
\ No newline at end of file
@@ -0,0 +1,93 @@
+package com.ibra.simple_full_stack.cache;
+
+import com.ibra.simple_full_stack.dto.PhotoView;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that the by-id cache never keeps a row read before an invalidation that happened during the load.
+ */
+class PhotoViewCacheTest {
+
+    private final PhotoViewCache cache = new PhotoViewCache(new SimpleMeterRegistry(), true, 100, Duration.ofMinutes(10));
+
+    @Test
+    void cachesLoadedRows() {
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get(1L, id -> {
+            loads.incrementAndGet();
+            return Optional.of(view(id, 0));
+        });
+        Optional<PhotoView> cached = cache.get(1L, id -> {
+            loads.incrementAndGet();
+            return Optional.of(view(id, 1));
+        });
+
+        assertEquals(1, loads.get());
+        assertEquals(0, cached.orElseThrow().version());
+    }
+
+    @Test
+    void loadThatRacedAnInvalidationIsServedButNotKept() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch invalidated = new CountDownLatch(1);
+
+        // A reader loads version 0, then a writer commits version 1 and invalidates before the reader stores
+        CompletableFuture<Optional<PhotoView>> reader = CompletableFuture.supplyAsync(() -> cache.get(1L, id -> {
+            loading.countDown();
+            await(invalidated);
+            return Optional.of(view(id, 0));
+        }));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+        cache.invalidate(List.of(1L));
+        invalidated.countDown();
+
+        assertEquals(0, reader.get(5, TimeUnit.SECONDS).orElseThrow().version());
+        Optional<PhotoView> next = cache.get(1L, id -> Optional.of(view(id, 1)));
+        assertEquals(1, next.orElseThrow().version());
+    }
+
+    @Test
+    void missingPhotosAreNotCached() {
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get(1L, id -> {
+            loads.incrementAndGet();
+            return Optional.empty();
+        });
+        cache.get(1L, id -> {
+            loads.incrementAndGet();
+            return Optional.empty();
+        });
+
+        assertEquals(2, loads.get());
+    }
+
+    private static PhotoView view(Long id, int version) {
+        LocalDateTime now = LocalDateTime.now();
+        return new PhotoView(id, "abc_beach.jpg", "beach.jpg", "Beach", null, null, 1_000L, "image/jpeg", null,
+                now, now, version);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
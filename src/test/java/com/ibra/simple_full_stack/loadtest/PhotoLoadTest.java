@@ -0,0 +1,465 @@
+package com.ibra.simple_full_stack.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ibra.simple_full_stack.service.impl.S3StandIn;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ActiveProfilesResolver;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * End-to-end load test: the full app on a random port against Postgres, storing photos with the
+ * filesystem backend under a temporary directory. Runs only through {@code ./gradlew loadTest}.
+ * <p>
+ * Postgres is a container unless {@code loadtest.jdbc-url} (with jdbc-username and jdbc-password)
+ * points at an empty database to use instead. With {@code loadtest.storage=s3} photos go through the
+ * real S3ServiceImpl and SDK client to an {@link S3StandIn} that adds {@code loadtest.s3-latency} per
+ * call. Other settings are system properties ({@code -Ploadtest.<name>=...} on the Gradle command
+ * line): duration, warmup, concurrency, mix, seed-photos, threshold, max-error-rate and virtual-threads.
+ * Results are written as JSON and compared against the committed baseline, and the run fails without
+ * one; pass {@code -Ploadtest.update-baseline=true} to record a new baseline instead. The committed
+ * baseline is from the filesystem backend; S3 runs need a baseline of their own via {@code loadtest.baseline}.
+ */
+@Tag("load")
+@ActiveProfiles(resolver = PhotoLoadTest.StorageProfileResolver.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class PhotoLoadTest {
+
+    private static final Logger log = LoggerFactory.getLogger(PhotoLoadTest.class);
+
+    private static final Duration DURATION = Duration.parse(setting("duration", "PT60S"));
+    private static final Duration WARMUP = Duration.parse(setting("warmup", "PT10S"));
+    private static final int CONCURRENCY = Integer.parseInt(setting("concurrency", "16"));
+    private static final String MIX = setting("mix", "upload=10,list=40,detail=30,update=15,delete=5");
+    private static final int SEED_PHOTOS = Integer.parseInt(setting("seed-photos", "100"));
+    private static final double THRESHOLD = Double.parseDouble(setting("threshold", "0.20"));
+    private static final double MAX_ERROR_RATE = Double.parseDouble(setting("max-error-rate", "0.01"));
+    private static final boolean VIRTUAL_THREADS = Boolean.parseBoolean(setting("virtual-threads", "false"));
+    private static final boolean UPDATE_BASELINE = Boolean.parseBoolean(setting("update-baseline", "false"));
+    private static final Path RESULTS = Path.of(setting("results", "build/reports/loadtest/results.json"));
+    private static final Path BASELINE = Path.of(setting("baseline", "src/test/resources/loadtest/baseline.json"));
+    private static final String JDBC_URL = setting("jdbc-url", "");
+    private static final boolean S3_STORAGE = "s3".equals(setting("storage", "filesystem"));
+    private static final Duration S3_LATENCY = Duration.parse(setting("s3-latency", "PT0.02S"));
+
+    private static PostgreSQLContainer<?> postgres;
+    private static S3StandIn s3StandIn;
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) throws IOException {
+        if (JDBC_URL.isBlank()) {
+            postgres = new PostgreSQLContainer<>("postgres:15")
+                    .withDatabaseName("loadtest")
+                    .withUsername("test")
+                    .withPassword("test");
+            postgres.start();
+            registry.add("spring.datasource.url", postgres::getJdbcUrl);
+            registry.add("spring.datasource.username", postgres::getUsername);
+            registry.add("spring.datasource.password", postgres::getPassword);
+        } else {
+            registry.add("spring.datasource.url", () -> JDBC_URL);
+            registry.add("spring.datasource.username", () -> setting("jdbc-username", "postgres"));
+            registry.add("spring.datasource.password", () -> setting("jdbc-password", ""));
+        }
+
+        if (S3_STORAGE) {
+            s3StandIn = new S3StandIn(S3_LATENCY);
+            // Read by the SDK's default credentials chain
+            System.setProperty("aws.accessKeyId", "load-test");
+            System.setProperty("aws.secretAccessKey", "load-test");
+            registry.add("s3.endpoint", s3StandIn::endpoint);
+            registry.add("aws.region", () -> "us-east-1");
+            registry.add("s3.bucket.name", () -> "load-test");
+            registry.add("s3.key-index.enabled", () -> "false");
+        } else {
+            Path storageRoot = Files.createTempDirectory("photo-loadtest-");
+            registry.add("storage.filesystem.root", storageRoot::toString);
+            registry.add("storage.filesystem.url-secret", () -> "load-test");
+        }
+        registry.add("spring.jpa.show-sql", () -> "false");
+        registry.add("spring.threads.virtual.enabled", () -> String.valueOf(VIRTUAL_THREADS));
+    }
+
+    @AfterAll
+    static void stopBackends() {
+        if (postgres != null) {
+            postgres.stop();
+        }
+        if (s3StandIn != null) {
+            s3StandIn.close();
+        }
+    }
+
+    static class StorageProfileResolver implements ActiveProfilesResolver {
+
+        @Override
+        public String[] resolve(Class<?> testClass) {
+            return S3_STORAGE ? new String[0] : new String[]{"filesystem"};
+        }
+    }
+
+    enum Operation { UPLOAD, LIST, DETAIL, UPDATE, DELETE }
+
+    @LocalServerPort
+    private int port;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+    private final IdPool ids = new IdPool();
+    private final AtomicLong imageCounter = new AtomicLong();
+
+    @Test
+    void photoApiUnderMixedLoad() throws Exception {
+        Map<Operation, Integer> weights = parseMix(MIX);
+        for (int i = 0; i < SEED_PHOTOS; i++) {
+            execute(Operation.UPLOAD);
+        }
+
+        log.info("Warming up for {}", WARMUP);
+        run(weights, WARMUP);
+
+        log.info("Running {} with {} workers, mix {}, virtual threads {}", DURATION, CONCURRENCY, MIX, VIRTUAL_THREADS);
+        Instant startedAt = Instant.now();
+        Map<Operation, Stats> stats = run(weights, DURATION);
+        double elapsedSeconds = Duration.between(startedAt, Instant.now()).toMillis() / 1000.0;
+
+        Map<String, Object> results = report(stats, startedAt, elapsedSeconds);
+        Files.createDirectories(RESULTS.toAbsolutePath().getParent());
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(RESULTS.toFile(), results);
+        log.info("Load test results written to {}", RESULTS.toAbsolutePath());
+
+        List<String> failures = new ArrayList<>();
+        stats.forEach((operation, operationStats) -> {
+            double errorRate = operationStats.count() == 0 ? 0 : (double) operationStats.errors / operationStats.count();
+            if (errorRate > MAX_ERROR_RATE) {
+                failures.add(String.format("%s error rate %.2f%% exceeds %.2f%%",
+                        key(operation), errorRate * 100, MAX_ERROR_RATE * 100));
+            }
+        });
+
+        if (UPDATE_BASELINE) {
+            Files.createDirectories(BASELINE.toAbsolutePath().getParent());
+            objectMapper.writerWithDefaultPrettyPrinter().writeValue(BASELINE.toFile(), results);
+            log.info("Baseline updated at {}", BASELINE.toAbsolutePath());
+        } else if (Files.exists(BASELINE)) {
+            failures.addAll(compareWithBaseline(objectMapper.readTree(BASELINE.toFile()), results));
+        } else {
+            failures.add("No baseline at " + BASELINE.toAbsolutePath()
+                    + "; record one with -Ploadtest.update-baseline=true");
+        }
+
+        assertTrue(failures.isEmpty(), "Load test regressed:\n" + String.join("\n", failures));
+    }
+
+    private Map<Operation, Stats> run(Map<Operation, Integer> weights, Duration duration) throws Exception {
+        Map<Operation, Stats> stats = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, new Stats());
+        }
+
+        long deadline = System.nanoTime() + duration.toNanos();
+        ExecutorService workers = VIRTUAL_THREADS
+                ? Executors.newVirtualThreadPerTaskExecutor()
+                : Executors.newFixedThreadPool(CONCURRENCY);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < CONCURRENCY; i++) {
+                futures.add(workers.submit(() -> {
+                    while (System.nanoTime() < deadline) {
+                        Operation operation = pick(weights);
+                        long start = System.nanoTime();
+                        Outcome outcome = execute(operation);
+                        stats.get(outcome.operation()).record(System.nanoTime() - start, outcome.status());
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            workers.shutdownNow();
+        }
+        return stats;
+    }
+
+    private Outcome execute(Operation operation) throws IOException, InterruptedException {
+        Long id = switch (operation) {
+            case DETAIL, UPDATE -> ids.random();
+            case DELETE -> ids.take();
+            default -> null;
+        };
+        // With nothing left to read or delete, grow the gallery instead
+        if (id == null && operation != Operation.LIST) {
+            operation = Operation.UPLOAD;
+        }
+
+        HttpResponse<String> response = httpClient.send(request(operation, id), HttpResponse.BodyHandlers.ofString());
+        if (operation == Operation.UPLOAD && response.statusCode() == 201) {
+            ids.add(objectMapper.readTree(response.body()).get("id").asLong());
+        }
+        return new Outcome(operation, response.statusCode());
+    }
+
+    private HttpRequest request(Operation operation, Long id) throws IOException {
+        String base = "http://localhost:" + port + "/api/photos";
+        return switch (operation) {
+            case UPLOAD -> {
+                String boundary = "----load-test-" + UUID.randomUUID();
+                yield HttpRequest.newBuilder(URI.create(base + "/upload"))
+                        .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+                        .POST(HttpRequest.BodyPublishers.ofByteArray(multipartBody(boundary)))
+                        .build();
+            }
+            case LIST -> HttpRequest.newBuilder(URI.create(base)).GET().build();
+            case DETAIL -> HttpRequest.newBuilder(URI.create(base + "/" + id)).GET().build();
+            case UPDATE -> HttpRequest.newBuilder(URI.create(base + "/" + id + "/description"))
+                    .header("Content-Type", "application/json")
+                    .method("PATCH", HttpRequest.BodyPublishers.ofString(
+                            "{\"description\":\"Updated under load " + System.nanoTime() + "\"}"))
+                    .build();
+            case DELETE -> HttpRequest.newBuilder(URI.create(base + "/" + id)).DELETE().build();
+        };
+    }
+
+    private byte[] multipartBody(String boundary) throws IOException {
+        long n = imageCounter.incrementAndGet();
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        writeField(body, boundary, "description", "Load test photo " + n);
+        writeField(body, boundary, "tags", "load-test,batch-" + (n % 10));
+        writeField(body, boundary, "category", "load-test");
+        body.write(("--" + boundary + "\r\n"
+                + "Content-Disposition: form-data; name=\"file\"; filename=\"load-" + n + ".png\"\r\n"
+                + "Content-Type: image/png\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+        body.write(image(n));
+        body.write(("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.UTF_8));
+        return body.toByteArray();
+    }
+
+    private static void writeField(ByteArrayOutputStream body, String boundary, String name, String value)
+            throws IOException {
+        body.write(("--" + boundary + "\r\n"
+                + "Content-Disposition: form-data; name=\"" + name + "\"\r\n\r\n"
+                + value + "\r\n").getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** Distinct image per upload, so every upload takes the full store path rather than the dedupe shortcut. */
+    private static byte[] image(long n) throws IOException {
+        BufferedImage image = new BufferedImage(640, 480, BufferedImage.TYPE_INT_RGB);
+        for (int y = 0; y < image.getHeight(); y++) {
+            for (int x = 0; x < image.getWidth(); x++) {
+                image.setRGB(x, y, (int) ((x * 31 + y * 17 + n * 7919) & 0xFFFFFF));
+            }
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+
+    private Map<String, Object> report(Map<Operation, Stats> stats, Instant startedAt, double elapsedSeconds) {
+        Map<String, Object> operations = new LinkedHashMap<>();
+        long total = 0;
+        for (Map.Entry<Operation, Stats> entry : stats.entrySet()) {
+            Stats operationStats = entry.getValue();
+            long[] latencies = operationStats.sortedLatencies();
+            total += latencies.length;
+            if (latencies.length == 0) {
+                continue;
+            }
+
+            Map<String, Object> values = new LinkedHashMap<>();
+            values.put("count", latencies.length);
+            values.put("errors", operationStats.errors);
+            values.put("notFound", operationStats.notFound);
+            values.put("conflicts", operationStats.conflicts);
+            values.put("throughput", round(latencies.length / elapsedSeconds));
+            values.put("p50Ms", percentileMillis(latencies, 0.50));
+            values.put("p95Ms", percentileMillis(latencies, 0.95));
+            values.put("p99Ms", percentileMillis(latencies, 0.99));
+            values.put("maxMs", round(latencies[latencies.length - 1] / 1_000_000.0));
+            operations.put(key(entry.getKey()), values);
+        }
+
+        Map<String, Object> results = new LinkedHashMap<>();
+        results.put("startedAt", startedAt.toString());
+        results.put("durationSeconds", round(elapsedSeconds));
+        results.put("concurrency", CONCURRENCY);
+        results.put("mix", MIX);
+        results.put("virtualThreads", VIRTUAL_THREADS);
+        results.put("storage", S3_STORAGE ? "s3 stand-in, " + S3_LATENCY.toMillis() + " ms per call" : "filesystem");
+        results.put("throughput", round(total / elapsedSeconds));
+        results.put("operations", operations);
+        return results;
+    }
+
+    /**
+     * Throughput may drop, and p95/p99 may rise, by at most the threshold fraction per operation.
+     */
+    private List<String> compareWithBaseline(JsonNode baseline, Map<String, Object> results) {
+        JsonNode current = objectMapper.valueToTree(results).get("operations");
+        List<String> failures = new ArrayList<>();
+        baseline.get("operations").properties().forEach(entry -> {
+            String operation = entry.getKey();
+            JsonNode expected = entry.getValue();
+            JsonNode actual = current.get(operation);
+            if (actual == null) {
+                failures.add(operation + " was not exercised in this run");
+                return;
+            }
+
+            double minThroughput = expected.get("throughput").asDouble() * (1 - THRESHOLD);
+            if (actual.get("throughput").asDouble() < minThroughput) {
+                failures.add(String.format("%s throughput %.1f/s is below %.1f/s",
+                        operation, actual.get("throughput").asDouble(), minThroughput));
+            }
+            for (String percentile : List.of("p95Ms", "p99Ms")) {
+                double maxLatency = expected.get(percentile).asDouble() * (1 + THRESHOLD);
+                if (actual.get(percentile).asDouble() > maxLatency) {
+                    failures.add(String.format("%s %s %.1f ms is above %.1f ms",
+                            operation, percentile, actual.get(percentile).asDouble(), maxLatency));
+                }
+            }
+        });
+        return failures;
+    }
+
+    private static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String part : mix.split(",")) {
+            String[] entry = part.trim().split("=");
+            weights.put(Operation.valueOf(entry[0].trim().toUpperCase()), Integer.parseInt(entry[1].trim()));
+        }
+        return weights;
+    }
+
+    private static Operation pick(Map<Operation, Integer> weights) {
+        int total = weights.values().stream().mapToInt(Integer::intValue).sum();
+        int roll = ThreadLocalRandom.current().nextInt(total);
+        for (Map.Entry<Operation, Integer> entry : weights.entrySet()) {
+            roll -= entry.getValue();
+            if (roll < 0) {
+                return entry.getKey();
+            }
+        }
+        return Operation.LIST;
+    }
+
+    private static double percentileMillis(long[] sortedNanos, double percentile) {
+        int index = (int) Math.ceil(percentile * sortedNanos.length) - 1;
+        return round(sortedNanos[Math.max(0, index)] / 1_000_000.0);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+
+    private static String key(Operation operation) {
+        return operation.name().toLowerCase();
+    }
+
+    private static String setting(String name, String defaultValue) {
+        return System.getProperty("loadtest." + name, defaultValue);
+    }
+
+    private record Outcome(Operation operation, int status) {
+    }
+
+    /**
+     * Latencies and status counts of one operation. Detail and update can race a delete or another update,
+     * so 404s and 409s are not errors.
+     */
+    private static final class Stats {
+
+        private long[] latencies = new long[1024];
+        private int size;
+        private long errors;
+        private long notFound;
+        private long conflicts;
+
+        synchronized void record(long nanos, int status) {
+            if (size == latencies.length) {
+                latencies = Arrays.copyOf(latencies, size * 2);
+            }
+            latencies[size++] = nanos;
+            if (status == 404) {
+                notFound++;
+            } else if (status == 409) {
+                conflicts++;
+            } else if (status >= 400) {
+                errors++;
+            }
+        }
+
+        synchronized int count() {
+            return size;
+        }
+
+        synchronized long[] sortedLatencies() {
+            long[] sorted = Arrays.copyOf(latencies, size);
+            Arrays.sort(sorted);
+            return sorted;
+        }
+    }
+
+    /** Ids of photos that exist, for picking detail, update and delete targets. */
+    private static final class IdPool {
+
+        private final List<Long> ids = new ArrayList<>();
+
+        synchronized void add(long id) {
+            ids.add(id);
+        }
+
+        synchronized Long random() {
+            return ids.isEmpty() ? null : ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+        }
+
+        synchronized Long take() {
+            if (ids.isEmpty()) {
+                return null;
+            }
+            int index = ThreadLocalRandom.current().nextInt(ids.size());
+            Long id = ids.get(index);
+            ids.set(index, ids.get(ids.size() - 1));
+            ids.remove(ids.size() - 1);
+            return id;
+        }
+    }
+}
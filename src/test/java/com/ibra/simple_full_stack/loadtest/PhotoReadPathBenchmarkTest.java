@@ -0,0 +1,229 @@
+package com.ibra.simple_full_stack.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ibra.simple_full_stack.dto.PhotoDto;
+import com.ibra.simple_full_stack.mapper.PhotoMapper;
+import com.ibra.simple_full_stack.repository.PhotoRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The full photo list read against a seeded photos table: loading managed Photo entities and mapping
+ * them, as getAllPhotos used to, against selecting PhotoView projections as it does now. Both run in a
+ * read-only transaction like the service method. Reports the median time and the bytes allocated by
+ * the calling thread per read, which covers JDBC decoding, Hibernate and the mapping.
+ * <p>
+ * Runs with {@code ./gradlew loadTest} against the same database as {@link PhotoLoadTest} and empties
+ * the photos table when done. A database given with {@code loadtest.jdbc-url} must have an empty photos
+ * table, or the run fails without touching it. Settings: read-path-rows (comma separated table sizes),
+ * read-path-warmup and read-path-iterations.
+ */
+@Tag("load")
+@ActiveProfiles("filesystem")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+class PhotoReadPathBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(PhotoReadPathBenchmarkTest.class);
+
+    private static final List<Integer> ROWS = Arrays.stream(setting("read-path-rows", "1000,10000").split(","))
+            .map(String::trim)
+            .map(Integer::parseInt)
+            .toList();
+    private static final int WARMUP = Integer.parseInt(setting("read-path-warmup", "30"));
+    private static final int ITERATIONS = Integer.parseInt(setting("read-path-iterations", "50"));
+    private static final Path RESULTS = Path.of(setting("read-path-results", "build/reports/loadtest/read-path.json"));
+    private static final String JDBC_URL = setting("jdbc-url", "");
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("id"));
+
+    private static PostgreSQLContainer<?> postgres;
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) throws IOException {
+        if (JDBC_URL.isBlank()) {
+            postgres = new PostgreSQLContainer<>("postgres:15")
+                    .withDatabaseName("loadtest")
+                    .withUsername("test")
+                    .withPassword("test");
+            postgres.start();
+            registry.add("spring.datasource.url", postgres::getJdbcUrl);
+            registry.add("spring.datasource.username", postgres::getUsername);
+            registry.add("spring.datasource.password", postgres::getPassword);
+        } else {
+            registry.add("spring.datasource.url", () -> JDBC_URL);
+            registry.add("spring.datasource.username", () -> setting("jdbc-username", "postgres"));
+            registry.add("spring.datasource.password", () -> setting("jdbc-password", ""));
+        }
+
+        Path storageRoot = Files.createTempDirectory("photo-readpath-");
+        registry.add("storage.filesystem.root", storageRoot::toString);
+        registry.add("storage.filesystem.url-secret", () -> "load-test");
+        registry.add("spring.jpa.show-sql", () -> "false");
+    }
+
+    @AfterAll
+    static void stopPostgres() {
+        if (postgres != null) {
+            postgres.stop();
+        }
+    }
+
+    @Autowired
+    private PhotoRepository photoRepository;
+
+    @Autowired
+    private PhotoMapper photoMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Set once the table is known to hold only rows this test wrote, which it may then truncate
+    private boolean ownsTable;
+
+    @BeforeEach
+    void refuseDatabaseWithPhotos() {
+        // A container is created for this run and holds nothing else
+        if (postgres != null) {
+            ownsTable = true;
+            return;
+        }
+        Long existing = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM photos", Long.class);
+        assertEquals(0L, existing, "The read path comparison truncates photos; " + JDBC_URL +
+                " already holds photos, so point loadtest.jdbc-url at an empty database");
+        ownsTable = true;
+    }
+
+    @AfterEach
+    void emptyTable() {
+        // Leaves the shared database as empty as the load test expects it
+        if (ownsTable) {
+            jdbcTemplate.execute("TRUNCATE photos CASCADE");
+        }
+    }
+
+    @Test
+    void viewsReadTheListWithLessWorkThanEntities() throws IOException {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        Supplier<List<PhotoDto>> entities = () -> readOnly.execute(status -> photoRepository.findAll(NEWEST_FIRST)
+                .stream()
+                .map(photoMapper::convertToDto)
+                .toList());
+        Supplier<List<PhotoDto>> views = () -> readOnly.execute(status -> photoRepository.findAllViews()
+                .stream()
+                .map(photoMapper::convertToDto)
+                .toList());
+
+        List<Map<String, Object>> results = new ArrayList<>();
+        List<String> failures = new ArrayList<>();
+        for (int rows : ROWS) {
+            seed(rows);
+            assertEquals(entities.get(), views.get(), "Both reads must return the same list");
+
+            Measurement entityRead = measure(entities);
+            Measurement viewRead = measure(views);
+            log.info("{} rows: entities {} ms / {} KB per read, views {} ms / {} KB per read", rows,
+                    entityRead.medianMillis(), entityRead.allocatedKb(), viewRead.medianMillis(), viewRead.allocatedKb());
+
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("rows", rows);
+            result.put("entities", entityRead);
+            result.put("views", viewRead);
+            results.add(result);
+            if (viewRead.allocatedKb() >= entityRead.allocatedKb()) {
+                failures.add(String.format("%d rows: views allocate %.1f KB per read, entities %.1f KB",
+                        rows, viewRead.allocatedKb(), entityRead.allocatedKb()));
+            }
+        }
+
+        Files.createDirectories(RESULTS.toAbsolutePath().getParent());
+        new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(RESULTS.toFile(), Map.of(
+                "warmup", WARMUP, "iterations", ITERATIONS, "results", results));
+        log.info("Read path results written to {}", RESULTS.toAbsolutePath());
+
+        assertTrue(failures.isEmpty(), "Projection read path regressed:\n" + String.join("\n", failures));
+    }
+
+    private Measurement measure(Supplier<List<PhotoDto>> read) {
+        for (int i = 0; i < WARMUP; i++) {
+            read.get();
+        }
+
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long[] nanos = new long[ITERATIONS];
+        long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < ITERATIONS; i++) {
+            long start = System.nanoTime();
+            read.get();
+            nanos[i] = System.nanoTime() - start;
+        }
+        long allocated = threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+
+        Arrays.sort(nanos);
+        return new Measurement(round(nanos[ITERATIONS / 2] / 1_000_000.0), round(nanos[ITERATIONS * 9 / 10] / 1_000_000.0),
+                round(allocated / 1024.0 / ITERATIONS));
+    }
+
+    private void seed(int rows) {
+        jdbcTemplate.execute("TRUNCATE photos CASCADE");
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> batch = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            long id = rows - i;
+            String fileName = "3f2b8c1e-9d4a-4b6f-8e2a-" + String.format("%012d", id) + "_IMG_" + id + ".jpg";
+            Timestamp createdAt = Timestamp.valueOf(now.minusMinutes(i * 37L));
+            // Stored URLs stay valid, so mapping never re-signs and only the read path is measured
+            batch.add(new Object[]{id, fileName, "IMG_" + id + ".jpg", "Photo number " + id, "/files/" + fileName,
+                    Timestamp.valueOf(now.plusDays(2)), 250_000L + id * 1_337, "image/jpeg", "200,800",
+                    createdAt, createdAt});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO photos (id, file_name, original_file_name, description, presigned_url, " +
+                "presigned_url_expires_at, file_size, content_type, variant_widths, created_at, updated_at, version) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0)", batch);
+        jdbcTemplate.execute("ANALYZE photos");
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+
+    private static String setting(String name, String defaultValue) {
+        return System.getProperty("loadtest." + name, defaultValue);
+    }
+
+    private record Measurement(double medianMillis, double p90Millis, double allocatedKb) {
+    }
+}
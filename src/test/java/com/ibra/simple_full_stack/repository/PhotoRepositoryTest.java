@@ -0,0 +1,133 @@
+package com.ibra.simple_full_stack.repository;
+
+import com.ibra.simple_full_stack.dto.PhotoView;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIf;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Query behaviour that only Postgres can show: keyset pages and the tag filter. Runs against a container,
+ * or against {@code -Ptest.jdbc-url} (with test.jdbc-username and test.jdbc-password) when Docker is not
+ * available; every test rolls back, so an existing database is left as it was.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@EnabledIf("databaseAvailable")
+class PhotoRepositoryTest {
+
+    private static final String JDBC_URL = System.getProperty("test.jdbc-url", "");
+    // Later than any real row, so the rows a test inserts always come first in newest-first order
+    private static final LocalDateTime FUTURE = LocalDateTime.of(2100, 1, 1, 12, 0);
+
+    private static PostgreSQLContainer<?> postgres;
+
+    static boolean databaseAvailable() {
+        return !JDBC_URL.isBlank() || DockerClientFactory.instance().isDockerAvailable();
+    }
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        if (JDBC_URL.isBlank()) {
+            postgres = new PostgreSQLContainer<>("postgres:15");
+            postgres.start();
+            registry.add("spring.datasource.url", postgres::getJdbcUrl);
+            registry.add("spring.datasource.username", postgres::getUsername);
+            registry.add("spring.datasource.password", postgres::getPassword);
+        } else {
+            registry.add("spring.datasource.url", () -> JDBC_URL);
+            registry.add("spring.datasource.username", () -> System.getProperty("test.jdbc-username", "postgres"));
+            registry.add("spring.datasource.password", () -> System.getProperty("test.jdbc-password", ""));
+        }
+    }
+
+    @AfterAll
+    static void stopPostgres() {
+        if (postgres != null) {
+            postgres.stop();
+        }
+    }
+
+    @Autowired
+    private PhotoRepository photoRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void keysetPagesSplitRowsWithEqualCreatedAtWithoutGapsOrRepeats() {
+        // Five photos share one timestamp, so only the id tells the page boundary apart
+        List<Long> expected = new ArrayList<>();
+        expected.add(insertPhoto(FUTURE.plusMinutes(1)));
+        List<Long> tied = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            tied.add(insertPhoto(FUTURE));
+        }
+        tied.sort((a, b) -> Long.compare(b, a));
+        expected.addAll(tied);
+        expected.add(insertPhoto(FUTURE.minusMinutes(1)));
+
+        List<Long> seen = new ArrayList<>();
+        List<PhotoView> page = photoRepository.findFirstPage(PageRequest.of(0, 3));
+        while (seen.size() < expected.size()) {
+            page.forEach(view -> seen.add(view.id()));
+            PhotoView last = page.get(page.size() - 1);
+            page = photoRepository.findPageAfter(last.createdAt(), last.id(), PageRequest.of(0, 3));
+        }
+
+        assertEquals(expected, seen.subList(0, expected.size()));
+    }
+
+    @Test
+    void tagPagesMatchAnyOrAllTagsNewestFirst() {
+        Long beachSunset = insertPhoto(FUTURE.plusMinutes(3), "beach", "sunset");
+        Long beach = insertPhoto(FUTURE.plusMinutes(2), "beach");
+        Long sunset = insertPhoto(FUTURE.plusMinutes(1), "sunset");
+        insertPhoto(FUTURE, "city");
+
+        List<PhotoView> any = photoRepository.findTaggedFirstPage(List.of("beach", "sunset"), 1, PageRequest.of(0, 2));
+        PhotoView last = any.get(any.size() - 1);
+        List<PhotoView> rest = photoRepository.findTaggedPageAfter(List.of("beach", "sunset"), 1,
+                last.createdAt(), last.id(), PageRequest.of(0, 2));
+
+        assertEquals(List.of(beachSunset, beach), any.stream().map(PhotoView::id).toList());
+        assertEquals(sunset, rest.get(0).id());
+        assertEquals(List.of(beachSunset), photoRepository.findTaggedFirstPage(List.of("beach", "sunset"), 2,
+                PageRequest.of(0, 10)).stream().map(PhotoView::id).filter(List.of(beachSunset, beach, sunset)::contains).toList());
+        assertEquals("Test photo", any.get(0).description());
+        assertEquals(0, any.get(0).version());
+    }
+
+    private Long insertPhoto(LocalDateTime createdAt, String... tags) {
+        Long id = insertPhoto(createdAt);
+        for (String tag : tags) {
+            jdbcTemplate.update("INSERT INTO tags (name) VALUES (?) ON CONFLICT (name) DO NOTHING", tag);
+            jdbcTemplate.update("INSERT INTO photo_tags (photo_id, tag_id) SELECT ?, id FROM tags WHERE name = ?", id, tag);
+        }
+        return id;
+    }
+
+    private Long insertPhoto(LocalDateTime createdAt) {
+        Timestamp timestamp = Timestamp.valueOf(createdAt);
+        return jdbcTemplate.queryForObject("INSERT INTO photos (id, file_name, original_file_name, description, " +
+                        "presigned_url, file_size, content_type, created_at, updated_at, version) " +
+                        "VALUES (nextval('photos_id_seq'), 'test_' || gen_random_uuid() || '.jpg', 'test.jpg', " +
+                        "'Test photo', '', 1000, 'image/jpeg', ?, ?, 0) RETURNING id",
+                Long.class, timestamp, timestamp);
+    }
+}
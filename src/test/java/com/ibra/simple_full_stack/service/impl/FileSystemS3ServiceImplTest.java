@@ -0,0 +1,99 @@
+package com.ibra.simple_full_stack.service.impl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that the filesystem backend answers every S3Service call the way S3ServiceImpl does.
+ */
+class FileSystemS3ServiceImplTest {
+
+    @TempDir
+    Path root;
+
+    private FileUrlSigner urlSigner;
+    private FileSystemS3ServiceImpl storage;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        urlSigner = new FileUrlSigner("test-secret");
+        storage = new FileSystemS3ServiceImpl(urlSigner, root.toString(), "http://localhost:8080/");
+    }
+
+    @Test
+    void storesUploadsAtomicallyWithTheirContentType() throws Exception {
+        byte[] content = new byte[300_000];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) i;
+        }
+        MockMultipartFile file = new MockMultipartFile("file", "beach.jpg", "image/jpeg", content);
+
+        assertTrue(storage.uploadFile(file, "abc_beach.jpg"));
+        assertTrue(storage.doesFileExist("abc_beach.jpg"));
+
+        FileSystemS3ServiceImpl.StoredObject object = storage.findObject("abc_beach.jpg");
+        assertNotNull(object);
+        assertEquals("image/jpeg", object.contentType());
+        assertArrayEquals(content, Files.readAllBytes(object.path()));
+        // No temporary files are left next to the object
+        try (var files = Files.list(root)) {
+            assertEquals(List.of("abc_beach.jpg"), files.map(path -> path.getFileName().toString())
+                    .filter(name -> !name.startsWith(".")).toList());
+        }
+        try (var files = Files.list(root)) {
+            assertTrue(files.noneMatch(path -> path.getFileName().toString().startsWith(".upload-")));
+        }
+    }
+
+    @Test
+    void deletingMissingKeysSucceedsLikeS3() {
+        assertTrue(storage.uploadBytes(new byte[]{1, 2, 3}, "abc__w200", "image/jpeg"));
+
+        assertTrue(storage.deleteFile("missing"));
+        assertEquals(Set.of("abc__w200", "missing"), storage.deleteFiles(List.of("abc__w200", "missing")));
+        assertFalse(storage.doesFileExist("abc__w200"));
+    }
+
+    @Test
+    void signedUrlsVerifyUntilTheyExpire() {
+        String url = storage.generatePresignedUrl("abc_beach.jpg", 3);
+        assertNotNull(url);
+
+        URI uri = URI.create(url);
+        assertEquals("/files/abc_beach.jpg", uri.getPath());
+        String[] query = uri.getQuery().split("&");
+        long expires = Long.parseLong(query[0].substring("expires=".length()));
+        String signature = query[1].substring("signature=".length());
+
+        assertTrue(urlSigner.verify("abc_beach.jpg", expires, signature));
+        assertFalse(urlSigner.verify("other.jpg", expires, signature));
+        assertFalse(urlSigner.verify("abc_beach.jpg", expires + 1, signature));
+
+        long expired = Instant.now().getEpochSecond() - 1;
+        assertFalse(urlSigner.verify("abc_beach.jpg", expired, urlSigner.sign("abc_beach.jpg", expired)));
+    }
+
+    @Test
+    void rejectsKeysOutsideTheStorageRootAndOverlongUrls() {
+        assertFalse(storage.uploadBytes(new byte[]{1}, "../escape", "image/jpeg"));
+        assertFalse(storage.uploadBytes(new byte[]{1}, ".meta", "image/jpeg"));
+        assertFalse(storage.doesFileExist("../escape"));
+        assertNull(storage.generatePresignedUrl("abc_beach.jpg", 8));
+    }
+}
@@ -0,0 +1,130 @@
+package com.ibra.simple_full_stack.service.impl;
+
+import com.ibra.simple_full_stack.service.S3Service;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Variants are generated from the image as it is displayed, not as its pixels are stored.
+ */
+class ImageVariantServiceImplTest {
+
+    private final S3Service s3Service = mock(S3Service.class);
+
+    private ImageVariantServiceImpl imageVariantService;
+
+    @BeforeEach
+    void setUp() {
+        imageVariantService = new ImageVariantServiceImpl(s3Service, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(imageVariantService, "enabled", true);
+        ReflectionTestUtils.setField(imageVariantService, "widths", List.of(100));
+        ReflectionTestUtils.setField(imageVariantService, "maxSourceSize", DataSize.ofMegabytes(50));
+        ReflectionTestUtils.setField(imageVariantService, "jpegQuality", 0.9f);
+        when(s3Service.uploadBytes(any(), anyString(), anyString())).thenReturn(true);
+    }
+
+    @Test
+    void rotatedCameraPhotoProducesAnUprightVariant() throws IOException {
+        // Stored landscape, red left and blue right, tagged "rotate 90 clockwise to display"
+        MockMultipartFile file = new MockMultipartFile("file", "portrait.jpg", "image/jpeg",
+                withOrientation(landscapeRedLeftBlueRight(), 6));
+
+        assertEquals(List.of(100), imageVariantService.generateVariants(file, "portrait.jpg"));
+
+        ArgumentCaptor<byte[]> uploaded = ArgumentCaptor.forClass(byte[].class);
+        verify(s3Service).uploadBytes(uploaded.capture(), eq("portrait.jpg__w100"), eq("image/jpeg"));
+        BufferedImage variant = ImageIO.read(new ByteArrayInputStream(uploaded.getValue()));
+
+        assertEquals(100, variant.getWidth());
+        assertEquals(200, variant.getHeight());
+        assertTrue(isRed(variant.getRGB(50, 50)), "The left of the stored pixels ends up on top");
+        assertTrue(isBlue(variant.getRGB(50, 150)), "The right of the stored pixels ends up at the bottom");
+    }
+
+    @Test
+    void photoWithoutExifKeepsItsStoredOrientation() throws IOException {
+        MockMultipartFile file = new MockMultipartFile("file", "landscape.jpg", "image/jpeg",
+                landscapeRedLeftBlueRight());
+
+        imageVariantService.generateVariants(file, "landscape.jpg");
+
+        ArgumentCaptor<byte[]> uploaded = ArgumentCaptor.forClass(byte[].class);
+        verify(s3Service).uploadBytes(uploaded.capture(), eq("landscape.jpg__w100"), eq("image/jpeg"));
+        BufferedImage variant = ImageIO.read(new ByteArrayInputStream(uploaded.getValue()));
+
+        assertEquals(100, variant.getWidth());
+        assertEquals(50, variant.getHeight());
+        assertTrue(isRed(variant.getRGB(25, 25)));
+        assertTrue(isBlue(variant.getRGB(75, 25)));
+    }
+
+    private static byte[] landscapeRedLeftBlueRight() throws IOException {
+        BufferedImage image = new BufferedImage(400, 200, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setColor(Color.RED);
+        graphics.fillRect(0, 0, 200, 200);
+        graphics.setColor(Color.BLUE);
+        graphics.fillRect(200, 0, 200, 200);
+        graphics.dispose();
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        ImageIO.write(image, "jpeg", outputStream);
+        return outputStream.toByteArray();
+    }
+
+    /**
+     * Insert an APP1 segment after the JFIF header holding a big-endian EXIF block with only the Orientation tag
+     */
+    private static byte[] withOrientation(byte[] jpeg, int orientation) {
+        byte[] app1 = {
+                (byte) 0xFF, (byte) 0xE1, 0x00, 0x22,                    // APP1, length 34
+                'E', 'x', 'i', 'f', 0x00, 0x00,
+                'M', 'M', 0x00, 0x2A, 0x00, 0x00, 0x00, 0x08,             // TIFF header, IFD0 at offset 8
+                0x00, 0x01,                                               // one entry
+                0x01, 0x12, 0x00, 0x03, 0x00, 0x00, 0x00, 0x01,           // Orientation, SHORT, count 1
+                0x00, (byte) orientation, 0x00, 0x00,
+                0x00, 0x00, 0x00, 0x00                                    // no next IFD
+        };
+
+        // SOI, then the APP0 segment ImageIO writes
+        int insertAt = 4 + ((jpeg[4] & 0xFF) << 8 | jpeg[5] & 0xFF);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        outputStream.write(jpeg, 0, insertAt);
+        outputStream.write(app1, 0, app1.length);
+        outputStream.write(jpeg, insertAt, jpeg.length - insertAt);
+        return outputStream.toByteArray();
+    }
+
+    private static boolean isRed(int rgb) {
+        Color color = new Color(rgb);
+        return color.getRed() > 200 && color.getBlue() < 60;
+    }
+
+    private static boolean isBlue(int rgb) {
+        Color color = new Color(rgb);
+        return color.getBlue() > 200 && color.getRed() < 60;
+    }
+}
@@ -0,0 +1,135 @@
+package com.ibra.simple_full_stack.service.impl;
+
+import com.ibra.simple_full_stack.cache.PhotoViewCache;
+import com.ibra.simple_full_stack.cache.PresignedUrlCache;
+import com.ibra.simple_full_stack.dto.BulkDeleteItemDto;
+import com.ibra.simple_full_stack.dto.BulkDeleteResultDto;
+import com.ibra.simple_full_stack.dto.BulkDeleteStatus;
+import com.ibra.simple_full_stack.dto.PhotoDetail;
+import com.ibra.simple_full_stack.dto.PhotoDto;
+import com.ibra.simple_full_stack.dto.PhotoView;
+import com.ibra.simple_full_stack.mapper.PhotoMapper;
+import com.ibra.simple_full_stack.model.Photo;
+import com.ibra.simple_full_stack.repository.PhotoRepository;
+import com.ibra.simple_full_stack.service.FacetService;
+import com.ibra.simple_full_stack.service.ImageVariantService;
+import com.ibra.simple_full_stack.service.PhotoBlobService;
+import com.ibra.simple_full_stack.service.S3Service;
+import com.ibra.simple_full_stack.service.TagService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Executor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Service behaviour that depends on how the repository, caches and storage are called, with all of them mocked
+ * except the by-id cache.
+ */
+class PhotoServiceImplTest {
+
+    private final PhotoRepository photoRepository = mock(PhotoRepository.class);
+    private final S3Service s3Service = mock(S3Service.class);
+    private final PhotoMapper photoMapper = mock(PhotoMapper.class);
+    private final ImageVariantService imageVariantService = mock(ImageVariantService.class);
+    private final PhotoBlobService photoBlobService = mock(PhotoBlobService.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final PhotoViewCache photoViewCache = new PhotoViewCache(meterRegistry, true, 100, Duration.ofMinutes(10));
+
+    private PhotoServiceImpl photoService;
+
+    @BeforeEach
+    void setUp() {
+        photoService = new PhotoServiceImpl(photoRepository, s3Service, photoMapper, mock(PresignedUrlCache.class),
+                photoViewCache, imageVariantService, photoBlobService, mock(TagService.class),
+                mock(FacetService.class), mock(TransactionTemplate.class), mock(ApplicationEventPublisher.class),
+                meterRegistry, mock(Executor.class));
+        ReflectionTestUtils.setField(photoService, "eTagTimeBucket", Duration.ofMinutes(10));
+        ReflectionTestUtils.setField(photoService, "maxBulkDeleteIds", 1000);
+        when(photoMapper.convertToDto(any(PhotoView.class))).thenAnswer(invocation -> {
+            PhotoView view = invocation.getArgument(0);
+            return PhotoDto.builder().id(view.id()).description(view.description()).build();
+        });
+    }
+
+    @Test
+    void detailETagAndBodyComeFromTheSameCachedRow() {
+        when(photoRepository.findViewById(7L)).thenReturn(Optional.of(view(7L, "Before", 1)));
+        PhotoDetail first = photoService.getPhotoDetail(7L);
+
+        // The row changes without the cache hearing of it yet: tag and body must still agree
+        when(photoRepository.findViewById(7L)).thenReturn(Optional.of(view(7L, "After", 2)));
+        PhotoDetail cached = photoService.getPhotoDetail(7L);
+
+        assertEquals(first.eTag(), cached.eTag());
+        assertTrue(cached.eTag().startsWith("photo-7-v1-"));
+        assertEquals("Before", cached.photo().getDescription());
+        verify(photoRepository, times(1)).findViewById(7L);
+
+        photoViewCache.invalidate(List.of(7L));
+        PhotoDetail updated = photoService.getPhotoDetail(7L);
+
+        assertTrue(updated.eTag().startsWith("photo-7-v2-"));
+        assertEquals("After", updated.photo().getDescription());
+    }
+
+    @Test
+    void bulkDeleteReportsEachRequestedIdOnce() {
+        Photo shared = Photo.builder().id(1L).fileName("abc_shared.jpg").contentHash("hash-1").build();
+        Photo owned = Photo.builder().id(2L).fileName("def_owned.jpg").variantWidths("200").build();
+        when(photoRepository.findAllById(any())).thenReturn(List.of(shared, owned));
+        when(imageVariantService.variantFileNames("def_owned.jpg", "200")).thenReturn(List.of("def_owned__w200.jpg"));
+        when(s3Service.deleteFiles(anyList())).thenReturn(Set.of("def_owned.jpg", "def_owned__w200.jpg"));
+
+        BulkDeleteResultDto result = photoService.deletePhotos(List.of(1L, 2L, 3L, 2L));
+
+        assertEquals(3, result.getRequested());
+        assertEquals(2, result.getDeleted());
+        assertEquals(1, result.getNotFound());
+        assertEquals(List.of(
+                new BulkDeleteItemDto(1L, BulkDeleteStatus.DELETED),
+                new BulkDeleteItemDto(2L, BulkDeleteStatus.DELETED),
+                new BulkDeleteItemDto(3L, BulkDeleteStatus.NOT_FOUND)), result.getResults());
+        verify(photoRepository).deleteAllByIdInBatch(Set.of(1L, 2L));
+        // Shared objects are released by reference count; only the owned object and its variant are deleted
+        verify(photoBlobService).release(List.of("hash-1"));
+        verify(s3Service).deleteFiles(List.of("def_owned.jpg", "def_owned__w200.jpg"));
+        assertEquals(0, meterRegistry.counter("photo.delete.orphaned-objects").count());
+    }
+
+    @Test
+    void bulkDeleteCountsObjectsThatOutliveTheirRows() {
+        Photo owned = Photo.builder().id(2L).fileName("def_owned.jpg").build();
+        when(photoRepository.findAllById(any())).thenReturn(List.of(owned));
+        when(s3Service.deleteFiles(anyList())).thenReturn(Set.of());
+
+        BulkDeleteResultDto result = photoService.deletePhotos(List.of(2L));
+
+        // The row is gone, so the photo is reported deleted; the leftover object is counted for cleanup
+        assertEquals(List.of(new BulkDeleteItemDto(2L, BulkDeleteStatus.DELETED)), result.getResults());
+        assertEquals(1, meterRegistry.counter("photo.delete.orphaned-objects").count());
+    }
+
+    private static PhotoView view(Long id, String description, int version) {
+        LocalDateTime now = LocalDateTime.now();
+        return new PhotoView(id, "abc_beach.jpg", "beach.jpg", description, null, null, 1_000L, "image/jpeg", null,
+                now, now, version);
+    }
+}
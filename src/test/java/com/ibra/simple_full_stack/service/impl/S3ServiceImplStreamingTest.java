@@ -0,0 +1,194 @@
+package com.ibra.simple_full_stack.service.impl;
+
+import com.ibra.simple_full_stack.cache.S3KeyIndex;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.MultipartFile;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3Configuration;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+
+import java.io.File;
+import java.io.InputStream;
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs parallel uploads against an in-process S3 stand-in and checks that the
+ * heap stays bounded even when the bytes in flight exceed the whole heap.
+ */
+class S3ServiceImplStreamingTest {
+
+    private static final int PARALLEL_UPLOADS = 8;
+
+    private S3StandIn s3StandIn;
+    private S3Client s3Client;
+    private S3ServiceImpl s3Service;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        s3StandIn = new S3StandIn(Duration.ZERO);
+
+        s3Client = S3Client.builder()
+                .endpointOverride(URI.create(s3StandIn.endpoint()))
+                .region(Region.EU_WEST_1)
+                .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create("test", "test")))
+                .serviceConfiguration(S3Configuration.builder()
+                        .pathStyleAccessEnabled(true)
+                        .checksumValidationEnabled(false)
+                        .build())
+                .build();
+
+        s3Service = new S3ServiceImpl(s3Client, S3Presigner.builder().region(Region.EU_WEST_1).build(), null,
+                new S3KeyIndex(s3Client), new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(s3Service, "bucketName", "test-bucket");
+        // Exercise the single-request streaming path regardless of file size
+        ReflectionTestUtils.setField(s3Service, "multipartThreshold", DataSize.ofBytes(Long.MAX_VALUE));
+    }
+
+    @AfterEach
+    void tearDown() {
+        s3Client.close();
+        s3StandIn.close();
+    }
+
+    @Test
+    void parallelUploadsStayUnderHeapCeiling() throws Exception {
+        long maxHeap = Runtime.getRuntime().maxMemory();
+        // Together the uploads carry twice the heap, so any whole-file buffering would fail
+        long fileSize = (maxHeap * 2) / PARALLEL_UPLOADS;
+        long heapCeiling = maxHeap / 2;
+
+        PeakHeapSampler sampler = new PeakHeapSampler();
+        sampler.start();
+
+        ExecutorService uploaders = Executors.newFixedThreadPool(PARALLEL_UPLOADS);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < PARALLEL_UPLOADS; i++) {
+                String key = "upload-" + i + ".jpg";
+                results.add(uploaders.submit(() -> s3Service.uploadFile(new GeneratedMultipartFile(fileSize), key)));
+            }
+            for (Future<Boolean> result : results) {
+                assertTrue(result.get(), "upload should succeed");
+            }
+        } finally {
+            uploaders.shutdownNow();
+            sampler.interrupt();
+            sampler.join();
+        }
+
+        assertTrue(s3StandIn.bytesReceived() >= fileSize * PARALLEL_UPLOADS, "stand-in should receive every byte");
+        assertTrue(sampler.peak < heapCeiling,
+                "peak heap " + sampler.peak + " exceeded ceiling " + heapCeiling);
+    }
+
+    private static final class PeakHeapSampler extends Thread {
+        private volatile long peak;
+
+        private PeakHeapSampler() {
+            setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            Runtime runtime = Runtime.getRuntime();
+            while (!isInterrupted()) {
+                peak = Math.max(peak, runtime.totalMemory() - runtime.freeMemory());
+                try {
+                    Thread.sleep(5);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Multipart stand-in that generates its content lazily and refuses whole-file reads.
+     */
+    private static final class GeneratedMultipartFile implements MultipartFile {
+        private final long size;
+
+        private GeneratedMultipartFile(long size) {
+            this.size = size;
+        }
+
+        @Override
+        public String getName() {
+            return "file";
+        }
+
+        @Override
+        public String getOriginalFilename() {
+            return "generated.jpg";
+        }
+
+        @Override
+        public String getContentType() {
+            return "image/jpeg";
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return size == 0;
+        }
+
+        @Override
+        public long getSize() {
+            return size;
+        }
+
+        @Override
+        public byte[] getBytes() {
+            throw new UnsupportedOperationException("uploads must not buffer the whole file");
+        }
+
+        @Override
+        public InputStream getInputStream() {
+            return new InputStream() {
+                private long remaining = size;
+
+                @Override
+                public int read() {
+                    if (remaining <= 0) {
+                        return -1;
+                    }
+                    remaining--;
+                    return 'x';
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    if (remaining <= 0) {
+                        return -1;
+                    }
+                    int n = (int) Math.min(len, remaining);
+                    Arrays.fill(b, off, off + n, (byte) 'x');
+                    remaining -= n;
+                    return n;
+                }
+            };
+        }
+
+        @Override
+        public void transferTo(File dest) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.ibra.simple_full_stack.service.impl;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * In-process HTTP server that answers the path-style S3 calls S3ServiceImpl makes: PutObject,
+ * HeadObject, DeleteObject, DeleteObjects and an empty ListObjectsV2. Object bodies are counted and
+ * discarded; only the keys are kept. The real SDK client talks to it over HTTP, so its connection pool,
+ * signing and streaming are exercised too.
+ */
+public class S3StandIn implements AutoCloseable {
+
+    private static final Pattern DELETE_KEY = Pattern.compile("<Key>([^<]*)</Key>");
+
+    private final HttpServer server;
+    // Platform threads, like a separate server: the JDK HttpServer streams pin virtual threads while they
+    // block, which on a small carrier pool would stall the app under test
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final Duration latency;
+    private final Set<String> keys = ConcurrentHashMap.newKeySet();
+    private final AtomicLong bytesReceived = new AtomicLong();
+
+    /**
+     * @param latency Delay added to every response, standing in for the network round trip to S3
+     */
+    public S3StandIn(Duration latency) throws IOException {
+        this.latency = latency;
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", this::handle);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    public String endpoint() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    public long bytesReceived() {
+        return bytesReceived.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            MessageDigest md5 = MessageDigest.getInstance("MD5");
+            byte[] body = readBody(exchange, md5);
+            if (!latency.isZero()) {
+                Thread.sleep(latency.toMillis());
+            }
+
+            String key = key(exchange);
+            String query = exchange.getRequestURI().getRawQuery();
+            switch (exchange.getRequestMethod()) {
+                case "PUT" -> {
+                    keys.add(key);
+                    // The SDK checks a PutObject ETag against the MD5 of what it sent
+                    exchange.getResponseHeaders().add("ETag", "\"" + HexFormat.of().formatHex(md5.digest()) + "\"");
+                    exchange.sendResponseHeaders(200, -1);
+                }
+                case "HEAD" -> {
+                    exchange.getResponseHeaders().add("Content-Length", "0");
+                    exchange.sendResponseHeaders(keys.contains(key) ? 200 : 404, -1);
+                }
+                case "DELETE" -> {
+                    keys.remove(key);
+                    exchange.sendResponseHeaders(204, -1);
+                }
+                case "POST" -> {
+                    if (query == null || !query.startsWith("delete")) {
+                        exchange.sendResponseHeaders(501, -1);
+                        return;
+                    }
+                    // Quiet mode: removed keys are not listed, and nothing fails
+                    Matcher matcher = DELETE_KEY.matcher(new String(body, StandardCharsets.UTF_8));
+                    while (matcher.find()) {
+                        keys.remove(matcher.group(1));
+                    }
+                    sendXml(exchange, "<DeleteResult xmlns=\"http://s3.amazonaws.com/doc/2006-03-01/\"/>");
+                }
+                case "GET" -> sendXml(exchange, "<ListBucketResult xmlns=\"http://s3.amazonaws.com/doc/2006-03-01/\">"
+                        + "<IsTruncated>false</IsTruncated><KeyCount>0</KeyCount></ListBucketResult>");
+                default -> exchange.sendResponseHeaders(501, -1);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private byte[] readBody(HttpExchange exchange, MessageDigest md5) throws IOException {
+        // PUT bodies can be larger than the heap, so only DeleteObjects requests are kept
+        boolean keep = "POST".equals(exchange.getRequestMethod());
+        ByteArrayOutputStream kept = new ByteArrayOutputStream();
+        String contentSha256 = exchange.getRequestHeaders().getFirst("x-amz-content-sha256");
+        boolean chunked = contentSha256 != null && contentSha256.startsWith("STREAMING-");
+        try (InputStream in = exchange.getRequestBody()) {
+            byte[] buffer = new byte[64 * 1024];
+            // Signed streaming uploads wrap the payload as "<hex size>;chunk-signature=...\r\n<data>\r\n"
+            long remaining = chunked ? nextChunkSize(in) : Long.MAX_VALUE;
+            while (remaining > 0) {
+                int read = in.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+                if (read == -1) {
+                    break;
+                }
+                bytesReceived.addAndGet(read);
+                md5.update(buffer, 0, read);
+                if (keep) {
+                    kept.write(buffer, 0, read);
+                }
+                if (chunked && (remaining -= read) == 0) {
+                    readLine(in);
+                    remaining = nextChunkSize(in);
+                }
+            }
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+        return kept.toByteArray();
+    }
+
+    private static long nextChunkSize(InputStream in) throws IOException {
+        String header = readLine(in);
+        int extension = header.indexOf(';');
+        return Long.parseLong(extension < 0 ? header.trim() : header.substring(0, extension), 16);
+    }
+
+    private static String readLine(InputStream in) throws IOException {
+        StringBuilder line = new StringBuilder();
+        int c;
+        while ((c = in.read()) != -1 && c != '\n') {
+            if (c != '\r') {
+                line.append((char) c);
+            }
+        }
+        return line.toString();
+    }
+
+    // Path-style requests: /<bucket>/<key>
+    private static String key(HttpExchange exchange) {
+        String path = exchange.getRequestURI().getRawPath();
+        int slash = path.indexOf('/', 1);
+        return slash < 0 ? "" : URLDecoder.decode(path.substring(slash + 1), StandardCharsets.UTF_8);
+    }
+
+    private static void sendXml(HttpExchange exchange, String xml) throws IOException {
+        byte[] response = ("<?xml version=\"1.0\" encoding=\"UTF-8\"?>" + xml).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/xml");
+        exchange.sendResponseHeaders(200, response.length);
+        exchange.getResponseBody().write(response);
+    }
+}
@@ -0,0 +1,133 @@
+package com.ibra.simple_full_stack.service.impl;
+
+import com.ibra.simple_full_stack.dto.PhotoDto;
+import com.ibra.simple_full_stack.dto.PhotoUploadRequest;
+import com.ibra.simple_full_stack.dto.UploadJobDto;
+import com.ibra.simple_full_stack.dto.UploadJobStatus;
+import com.ibra.simple_full_stack.service.PhotoService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIf;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * The abandoned-job sweep against the upload_jobs table: jobs this task still holds survive however long
+ * they have waited, jobs nobody is heartbeating are failed. Runs against a container, or against
+ * {@code -Ptest.jdbc-url} when Docker is not available; every test rolls back.
+ */
+@JdbcTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@EnabledIf("databaseAvailable")
+class UploadJobServiceImplTest {
+
+    private static final String JDBC_URL = System.getProperty("test.jdbc-url", "");
+
+    private static PostgreSQLContainer<?> postgres;
+
+    static boolean databaseAvailable() {
+        return !JDBC_URL.isBlank() || DockerClientFactory.instance().isDockerAvailable();
+    }
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        if (JDBC_URL.isBlank()) {
+            postgres = new PostgreSQLContainer<>("postgres:15");
+            postgres.start();
+            registry.add("spring.datasource.url", postgres::getJdbcUrl);
+            registry.add("spring.datasource.username", postgres::getUsername);
+            registry.add("spring.datasource.password", postgres::getPassword);
+        } else {
+            registry.add("spring.datasource.url", () -> JDBC_URL);
+            registry.add("spring.datasource.username", () -> System.getProperty("test.jdbc-username", "postgres"));
+            registry.add("spring.datasource.password", () -> System.getProperty("test.jdbc-password", ""));
+        }
+    }
+
+    @AfterAll
+    static void stopPostgres() {
+        if (postgres != null) {
+            postgres.stop();
+        }
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @TempDir
+    private Path spoolDirectory;
+
+    private final PhotoService photoService = mock(PhotoService.class);
+    // Holds submitted jobs instead of running them, like a worker pool with every worker busy
+    private final List<Runnable> waiting = new ArrayList<>();
+
+    private UploadJobServiceImpl uploadJobService;
+
+    @BeforeEach
+    void setUp() {
+        uploadJobService = new UploadJobServiceImpl(photoService, waiting::add, jdbcTemplate, 1, 10);
+        ReflectionTestUtils.setField(uploadJobService, "spoolDirectory", spoolDirectory);
+        ReflectionTestUtils.setField(uploadJobService, "jobRetention", Duration.ofHours(1));
+        ReflectionTestUtils.setField(uploadJobService, "staleAfter", Duration.ofMinutes(5));
+    }
+
+    @Test
+    void sweepFailsOnlyJobsWhoseHeartbeatStopped() {
+        String held = uploadJobService.submit(photo(), new PhotoUploadRequest()).getJobId();
+        String orphaned = UUID.randomUUID().toString();
+        jdbcTemplate.update("INSERT INTO upload_jobs (job_id, status, original_file_name, file_size, queued_at, " +
+                "started_at, heartbeat_at) VALUES (?, 'PROCESSING', 'orphan.jpg', 4, ?, ?, ?)", orphaned,
+                LocalDateTime.now().minusMinutes(20), LocalDateTime.now().minusMinutes(19),
+                LocalDateTime.now().minusMinutes(10));
+        // Both were queued well over stale-after ago; only the held one is still waiting on this task
+        jdbcTemplate.update("UPDATE upload_jobs SET queued_at = ?, heartbeat_at = ? WHERE job_id = ?",
+                LocalDateTime.now().minusMinutes(30), LocalDateTime.now().minusMinutes(30), held);
+
+        uploadJobService.removeExpiredJobs();
+
+        assertEquals(UploadJobStatus.QUEUED, uploadJobService.getJob(held).getStatus());
+        assertEquals(UploadJobStatus.FAILED, uploadJobService.getJob(orphaned).getStatus());
+    }
+
+    @Test
+    void jobReportsFilesDoneOutOfTotal() {
+        when(photoService.uploadPhoto(any(), any())).thenReturn(PhotoDto.builder().id(42L).build());
+        String jobId = uploadJobService.submit(photo(), new PhotoUploadRequest()).getJobId();
+
+        UploadJobDto queued = uploadJobService.getJob(jobId);
+        assertEquals(1, queued.getFilesTotal());
+        assertEquals(0, queued.getFilesDone());
+
+        waiting.forEach(Runnable::run);
+
+        UploadJobDto completed = uploadJobService.getJob(jobId);
+        assertEquals(UploadJobStatus.COMPLETED, completed.getStatus());
+        assertEquals(1, completed.getFilesDone());
+    }
+
+    private static MockMultipartFile photo() {
+        return new MockMultipartFile("file", "photo.jpg", "image/jpeg", new byte[]{1, 2, 3, 4});
+    }
+}
@@ -0,0 +1,18 @@
+package com.ibra.simple_full_stack.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class FileUtilsTest {
+
+    @Test
+    void fileSizesRoundTheExactValueHalfEven() {
+        assertEquals("0 B", FileUtils.formatFileSize(0L));
+        assertEquals("1 KB", FileUtils.formatFileSize(1024L));
+        assertEquals("2.5 MB", FileUtils.formatFileSize(2_621_440L));
+        // 1.125 and 1.375 KB are exact ties, so they round to the even digit as DecimalFormat("#.##") did
+        assertEquals("1.12 KB", FileUtils.formatFileSize(1152L));
+        assertEquals("1.38 KB", FileUtils.formatFileSize(1408L));
+    }
+}